@@ -0,0 +1,119 @@
+package benchmarks;
+
+import cars.Car;
+import fleet.CarsSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@code fleet.CarsSet} operations for fleets of 10 to 10M cars.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class CarsSetBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    private Car[] cars;
+    private Car[] absent;
+    private CarsSet set;
+    private List<Car> half;
+    private CarsSet shifted;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cars = FleetData.cars(size, 42);
+        absent = FleetData.cars(Math.min(size, 1024), 7);
+        set = new CarsSet(Arrays.asList(cars));
+        half = Arrays.asList(Arrays.copyOf(cars, size / 2));
+        // Half of the cars are shared with set, as between two consecutive fleet snapshots
+        Car[] other = Arrays.copyOf(cars, size);
+        System.arraycopy(FleetData.cars(size - size / 2, 11), 0, other, size / 2, size - size / 2);
+        shifted = new CarsSet(Arrays.asList(other));
+    }
+
+    private int next() {
+        int i = cursor + 1;
+        if (i == size) {
+            i = 0;
+        }
+        cursor = i;
+        return i;
+    }
+
+    /**
+     * Builds a set from scratch; the score is the cost of loading the whole fleet.
+     */
+    @Benchmark
+    public CarsSet addAll() {
+        CarsSet result = new CarsSet();
+        for (Car car : cars) {
+            result.add(car);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public boolean containsHit() {
+        return set.contains(cars[next()]);
+    }
+
+    @Benchmark
+    public boolean containsMiss() {
+        return set.contains(absent[next() % absent.length]);
+    }
+
+    /**
+     * Removes a car and adds it back, so the set keeps its size between invocations.
+     */
+    @Benchmark
+    public boolean removeAndAdd() {
+        Car car = cars[next()];
+        return set.remove(car) & set.add(car);
+    }
+
+    /**
+     * Copies the set and retains half of it; the score includes the copy.
+     */
+    @Benchmark
+    public boolean retainAll() {
+        return new CarsSet(set).retainAll(half);
+    }
+
+    @Benchmark
+    public CarsSet union() {
+        return CarsSet.union(set, shifted);
+    }
+
+    @Benchmark
+    public CarsSet symmetricDifference() {
+        return CarsSet.symmetricDifference(set, shifted);
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (Car car : set) {
+            blackhole.consume(car);
+        }
+    }
+
+    @Benchmark
+    public double streamSum() {
+        return set.stream().mapToDouble(Car::getPrice).sum();
+    }
+
+    @Benchmark
+    public double parallelStreamSum() {
+        return set.parallelStream().mapToDouble(Car::getPrice).sum();
+    }
+}
@@ -0,0 +1,43 @@
+package benchmarks;
+
+import cars.Car;
+import cars.ElectricCar;
+import cars.SUV;
+import cars.Sedan;
+
+import java.util.SplittableRandom;
+
+/**
+ * The {@code FleetData} class generates reproducible fleets of distinct cars for the benchmarks.
+ */
+final class FleetData {
+    private static final int MODELS = 500;
+
+    private FleetData() {
+    }
+
+    /**
+     * Generates the specified number of distinct cars with a mix of all car types.
+     *
+     * @param size the number of cars
+     * @param seed the seed of the random generator
+     * @return an array of distinct cars
+     */
+    static Car[] cars(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Car[] cars = new Car[size];
+        for (int i = 0; i < size; i++) {
+            String model = "Model" + random.nextInt(MODELS);
+            double speed = 80 + random.nextInt(160);
+            // the price carries the index so that every car is distinct
+            double price = 10000 + random.nextInt(60000) + i * 1e-3;
+            switch (i & 3) {
+                case 0 -> cars[i] = new Sedan(model, 5 + random.nextDouble(10), speed, price);
+                case 1 -> cars[i] = new SUV(model, 8 + random.nextDouble(12), speed, price);
+                case 2 -> cars[i] = new ElectricCar(model, 12 + random.nextDouble(10), speed, price);
+                default -> cars[i] = new Car(model, 4 + random.nextDouble(16), speed, price);
+            }
+        }
+        return cars;
+    }
+}
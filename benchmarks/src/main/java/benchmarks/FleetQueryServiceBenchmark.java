@@ -0,0 +1,54 @@
+package benchmarks;
+
+import cars.Car;
+import fleet.FleetQueryService;
+import fleet.VersionedFleet;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the {@code fleet.FleetQueryService} queries under concurrent load: 64 client threads submit queries
+ * and wait for their answers, and the sampled times give the latency percentiles of a request, including the time
+ * spent waiting for admission, coalescing and batching.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(64)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class FleetQueryServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private FleetQueryService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new FleetQueryService(new VersionedFleet(FleetData.cars(size, 42)), 2048, Duration.ofSeconds(30));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.close();
+    }
+
+    /**
+     * A speed range lookup over one of 200 bands, so that concurrent clients often ask the same question.
+     */
+    @Benchmark
+    public Car findCarBySpeedRange() {
+        double minSpeed = 60.0 + ThreadLocalRandom.current().nextInt(200);
+        return service.findCarBySpeedRange(minSpeed, minSpeed + 1.0).join();
+    }
+
+    @Benchmark
+    public double calculateFleetCost() {
+        return service.calculateFleetCost().join();
+    }
+}
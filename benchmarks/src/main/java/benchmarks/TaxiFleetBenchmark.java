@@ -0,0 +1,126 @@
+package benchmarks;
+
+import cars.Car;
+import fleet.ColumnarFleet;
+import fleet.OffHeapFleet;
+import fleet.TaxiFleet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@code fleet.TaxiFleet} queries, next to the same queries over {@code fleet.ColumnarFleet}
+ * and {@code fleet.OffHeapFleet}, for fleets of 10 to 10M cars.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TaxiFleetBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    private Car[] cars;
+    private TaxiFleet fleet;
+    private ColumnarFleet columnarFleet;
+    private OffHeapFleet offHeapFleet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cars = FleetData.cars(size, 42);
+        fleet = new TaxiFleet(cars.clone());
+        columnarFleet = new ColumnarFleet(cars);
+        offHeapFleet = new OffHeapFleet(cars);
+    }
+
+    @Benchmark
+    public double calculateFleetCost() {
+        return fleet.calculateFleetCost();
+    }
+
+    @Benchmark
+    public double calculateFleetCostColumnar() {
+        return columnarFleet.calculateFleetCost();
+    }
+
+    @Benchmark
+    public double calculateFleetCostOffHeap() {
+        return offHeapFleet.calculateFleetCost();
+    }
+
+    /**
+     * Sorts a fresh copy of the unsorted fleet; the score includes copying the array.
+     */
+    @Benchmark
+    public TaxiFleet sortByFuelConsumption() {
+        TaxiFleet copy = new TaxiFleet(cars.clone());
+        copy.sortByFuelConsumption();
+        return copy;
+    }
+
+    /**
+     * Sorts a fresh copy of the unsorted columnar fleet; the score includes building the copy.
+     */
+    @Benchmark
+    public ColumnarFleet sortByFuelConsumptionColumnar() {
+        ColumnarFleet copy = new ColumnarFleet(cars);
+        copy.sortByFuelConsumption();
+        return copy;
+    }
+
+    /**
+     * Sorts a fresh copy of the unsorted off-heap fleet; the score includes building the copy.
+     */
+    @Benchmark
+    public OffHeapFleet sortByFuelConsumptionOffHeap() {
+        OffHeapFleet copy = new OffHeapFleet(cars);
+        copy.sortByFuelConsumption();
+        return copy;
+    }
+
+    @Benchmark
+    public Car findCarBySpeedRangeHit() {
+        return fleet.findCarBySpeedRange(200, 210);
+    }
+
+    /**
+     * Looks for a speed no car has. The speed index is built by the first call, so this measures an
+     * O(log N) index lookup.
+     */
+    @Benchmark
+    public Car findCarBySpeedRangeMissIndexed() {
+        return fleet.findCarBySpeedRange(300, 310);
+    }
+
+    /**
+     * Looks for a speed no car has by reading every car, the scan the index replaces.
+     */
+    @Benchmark
+    public Car findCarBySpeedRangeMissScan() {
+        for (int i = 0; i < fleet.size(); i++) {
+            Car car = fleet.get(i);
+            if (car.getSpeed() >= 300 && car.getSpeed() <= 310) {
+                return car;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public int findCarBySpeedRangeMissColumnar() {
+        return columnarFleet.indexOfSpeedRange(300, 310);
+    }
+
+    @Benchmark
+    public int findCarBySpeedRangeMissOffHeap() {
+        return offHeapFleet.indexOfSpeedRange(300, 310);
+    }
+
+    @Benchmark
+    public Car[] getCars() {
+        return fleet.getCars();
+    }
+}
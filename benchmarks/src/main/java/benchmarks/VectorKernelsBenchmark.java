@@ -0,0 +1,95 @@
+package benchmarks;
+
+import cars.CarAttribute;
+import fleet.ColumnarFleet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@code fleet.ColumnarFleet} aggregates and range scans with the Vector API enabled and
+ * disabled, for fleets of 1M and 10M cars. Every benchmark has a scalar and a vector variant; they differ only
+ * in the JVM arguments of their fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class VectorKernelsBenchmark {
+    private static final String VECTOR = "jdk.incubator.vector";
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    private ColumnarFleet fleet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fleet = new ColumnarFleet(FleetData.cars(size, 42));
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules", VECTOR, "-Dfleet.vector=false"})
+    public double sumScalar() {
+        return fleet.calculateFleetCost();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules", VECTOR})
+    public double sumVector() {
+        return fleet.calculateFleetCost();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules", VECTOR, "-Dfleet.vector=false"})
+    public double maxScalar() {
+        return fleet.max(CarAttribute.SPEED);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules", VECTOR})
+    public double maxVector() {
+        return fleet.max(CarAttribute.SPEED);
+    }
+
+    /**
+     * Looks for a speed no car has, which forces a scan of the whole column.
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules", VECTOR, "-Dfleet.vector=false"})
+    public int findMissScalar() {
+        return fleet.indexOfSpeedRange(300, 310);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules", VECTOR})
+    public int findMissVector() {
+        return fleet.indexOfSpeedRange(300, 310);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules", VECTOR, "-Dfleet.vector=false"})
+    public int countScalar() {
+        return fleet.countInRange(CarAttribute.FUEL_CONSUMPTION, 5, 10);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules", VECTOR})
+    public int countVector() {
+        return fleet.countInRange(CarAttribute.FUEL_CONSUMPTION, 5, 10);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules", VECTOR, "-Dfleet.vector=false"})
+    public BitSet maskScalar() {
+        return fleet.rangeMask(CarAttribute.PRICE, 20000, 40000);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules", VECTOR})
+    public BitSet maskVector() {
+        return fleet.rangeMask(CarAttribute.PRICE, 20000, 40000);
+    }
+}
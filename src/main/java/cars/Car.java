@@ -2,17 +2,21 @@ package cars;
 
 import customExceptions.CarException;
 
-import java.util.Objects;
-
 /**
  * The {@code Car} class represents a generic car with basic attributes.
  * It provides information such as model, fuel consumption, speed, and price.
+ * The model name is interned by the {@link ModelRegistry}, and the car only keeps its model id.
  */
 public class Car {
-    private String model;
-    private double fuelConsumption; // in liters per 100 km
-    private double speed; // in km/h
-    private double price; // in dollars
+    private final int modelId;
+    private final double fuelConsumption; // in liters per 100 km
+    private final double speed; // in km/h
+    private final double price; // in dollars
+
+    /**
+     * The hash code, computed once since the attributes never change.
+     */
+    private final int hash;
 
     /**
      * Constructs a car with the specified attributes.
@@ -26,10 +30,27 @@ public class Car {
         if (fuelConsumption < 0 || speed < 0 || price < 0) {
             throw new CarException("Invalid car attributes: fuelConsumption, speed, and price must be non-negative.");
         }
-        this.model = model;
+        this.modelId = ModelRegistry.idOf(model);
         this.fuelConsumption = fuelConsumption;
         this.speed = speed;
         this.price = price;
+        this.hash = hash(modelId, fuelConsumption, speed, price);
+    }
+
+    /**
+     * Computes the hash code of a car with the specified attributes without boxing them.
+     *
+     * @param modelId         the model id of the car
+     * @param fuelConsumption the fuel consumption of the car
+     * @param speed           the speed of the car
+     * @param price           the price of the car
+     * @return the hash code
+     */
+    static int hash(int modelId, double fuelConsumption, double speed, double price) {
+        int result = 31 + modelId;
+        result = 31 * result + Double.hashCode(fuelConsumption);
+        result = 31 * result + Double.hashCode(speed);
+        return 31 * result + Double.hashCode(price);
     }
 
 
@@ -39,7 +60,16 @@ public class Car {
      * @return the model of the car
      */
     public String getModel() {
-        return model;
+        return ModelRegistry.nameOf(modelId);
+    }
+
+    /**
+     * Gets the id of the model of the car in the {@link ModelRegistry}.
+     *
+     * @return the model id of the car
+     */
+    public int getModelId() {
+        return modelId;
     }
 
     /**
@@ -77,7 +107,7 @@ public class Car {
     @Override
     public String toString() {
         return "Car{" +
-                "model='" + model + '\'' +
+                "model='" + getModel() + '\'' +
                 ", fuelConsumption=" + fuelConsumption +
                 ", speed=" + speed +
                 ", price=" + price +
@@ -85,6 +115,7 @@ public class Car {
     }
     /**
      * Checks whether two cars are equal based on their model, fuel consumption, speed, and price.
+     * Cached hash codes are compared first, so most unequal cars are told apart by a single comparison.
      *
      * @param obj the object to compare with this car
      * @return true if the cars are equal, false otherwise
@@ -94,10 +125,11 @@ public class Car {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         Car otherCar = (Car) obj;
-        return Double.compare(otherCar.fuelConsumption, fuelConsumption) == 0 &&
+        return hash == otherCar.hash &&
+                modelId == otherCar.modelId &&
+                Double.compare(otherCar.fuelConsumption, fuelConsumption) == 0 &&
                 Double.compare(otherCar.speed, speed) == 0 &&
-                Double.compare(otherCar.price, price) == 0 &&
-                model.equals(otherCar.model);
+                Double.compare(otherCar.price, price) == 0;
     }
 
     /**
@@ -107,6 +139,6 @@ public class Car {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(model, fuelConsumption, speed, price);
+        return hash;
     }
 }
@@ -0,0 +1,43 @@
+package cars;
+
+/**
+ * The {@code CarAttribute} enum enumerates the numeric attributes of a car, so that queries, indexes and
+ * statistics can address any of them uniformly.
+ */
+public enum CarAttribute {
+    /**
+     * The fuel consumption in liters per 100 km, 0 for electric cars.
+     */
+    FUEL_CONSUMPTION,
+    /**
+     * The speed in km/h.
+     */
+    SPEED,
+    /**
+     * The price in dollars.
+     */
+    PRICE,
+    /**
+     * The power consumption in kilowatts per 100 km, 0 for cars that are not electric.
+     */
+    KWATT;
+
+    /**
+     * Gets the value of this attribute for the specified car.
+     *
+     * @param car the car to read
+     * @return the value of this attribute
+     */
+    public double valueOf(Car car) {
+        switch (this) {
+            case FUEL_CONSUMPTION:
+                return car.getFuelConsumption();
+            case SPEED:
+                return car.getSpeed();
+            case PRICE:
+                return car.getPrice();
+            default:
+                return CarType.kWattOf(car);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package cars;
+
+/**
+ * The {@code CarType} enum enumerates the concrete kinds of cars. It is used as a compact type tag
+ * wherever cars are stored as primitive columns instead of objects.
+ */
+public enum CarType {
+    CAR,
+    SEDAN,
+    SUV,
+    ELECTRIC;
+
+    private static final CarType[] VALUES = values();
+
+    /**
+     * Gets the type tag of the specified car.
+     *
+     * @param car the car to classify
+     * @return the type tag of the car
+     */
+    public static CarType of(Car car) {
+        if (car instanceof ElectricCar) {
+            return ELECTRIC;
+        }
+        if (car instanceof SUV) {
+            return SUV;
+        }
+        if (car instanceof Sedan) {
+            return SEDAN;
+        }
+        return CAR;
+    }
+
+    /**
+     * Gets the type tag with the specified ordinal.
+     *
+     * @param ordinal the ordinal of the type tag
+     * @return the type tag with the specified ordinal
+     */
+    public static CarType ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Creates a car of this type with the specified attributes.
+     *
+     * @param model           the model of the car
+     * @param fuelConsumption the fuel consumption of the car in liters per 100 km, ignored for electric cars
+     * @param speed           the speed of the car in km/h
+     * @param price           the price of the car in dollars
+     * @param kWatt           the power consumption in kilowatts per 100 km, used by electric cars only
+     * @return a new car of this type
+     */
+    public Car create(String model, double fuelConsumption, double speed, double price, double kWatt) {
+        switch (this) {
+            case SEDAN:
+                return new Sedan(model, fuelConsumption, speed, price);
+            case SUV:
+                return new SUV(model, fuelConsumption, speed, price);
+            case ELECTRIC:
+                return new ElectricCar(model, kWatt, speed, price);
+            default:
+                return new Car(model, fuelConsumption, speed, price);
+        }
+    }
+
+    /**
+     * Gets the power consumption of the specified car in kilowatts per 100 km.
+     *
+     * @param car the car to inspect
+     * @return the power consumption of an electric car, or 0 for any other car
+     */
+    public static double kWattOf(Car car) {
+        return car instanceof ElectricCar ? ((ElectricCar) car).getWatt() : 0;
+    }
+}
@@ -0,0 +1,191 @@
+package cars;
+
+import customExceptions.CarException;
+
+/**
+ * The {@code CarValue} class is a compact immutable value holding the attributes of a car of any type: the type
+ * tag, the interned model id, fuel consumption, speed, price and power consumption. Unlike {@code Car} it has
+ * no subclasses, so two values are equal exactly when all their attributes are equal, including the type.
+ * <p>
+ * The hash code is computed once on construction. {@link #equals(Object)} compares it first and then the
+ * primitive fields, so neither hashing nor comparing allocates.
+ */
+public final class CarValue {
+    private final CarType type;
+    private final int modelId;
+    private final double fuelConsumption; // in liters per 100 km
+    private final double speed; // in km/h
+    private final double price; // in dollars
+    private final double kWatt; // in kilowatts per 100 km
+    private final int hash;
+
+    /**
+     * Constructs a car value with the specified attributes. As for {@link ElectricCar}, the fuel consumption of
+     * an electric car is 0, and the power consumption of any other car is 0.
+     *
+     * @param type            the type of the car
+     * @param model           the model of the car
+     * @param fuelConsumption the fuel consumption in liters per 100 km, ignored for electric cars
+     * @param speed           the speed in km/h
+     * @param price           the price in dollars
+     * @param kWatt           the power consumption in kilowatts per 100 km, used by electric cars only
+     */
+    public CarValue(CarType type, String model, double fuelConsumption, double speed, double price, double kWatt) {
+        if (type == null) {
+            throw new CarException("Invalid car attributes: type must not be null.");
+        }
+        boolean electric = type == CarType.ELECTRIC;
+        if (electric) {
+            fuelConsumption = 0;
+        } else {
+            kWatt = 0;
+        }
+        if (fuelConsumption < 0 || speed < 0 || price < 0) {
+            throw new CarException("Invalid car attributes: fuelConsumption, speed, and price must be non-negative.");
+        }
+        if (kWatt < 0) {
+            throw new CarException("Invalid electric car attribute: kWatt must be non-negative.");
+        }
+        this.type = type;
+        this.modelId = ModelRegistry.idOf(model);
+        this.fuelConsumption = fuelConsumption;
+        this.speed = speed;
+        this.price = price;
+        this.kWatt = kWatt;
+        int result = Car.hash(modelId, fuelConsumption, speed, price);
+        result = 31 * result + Double.hashCode(kWatt);
+        this.hash = 31 * result + type.ordinal();
+    }
+
+    /**
+     * Creates a car value with the attributes of the specified car.
+     *
+     * @param car the car to copy
+     * @return the car value
+     */
+    public static CarValue of(Car car) {
+        if (car == null) {
+            throw new CarException("Invalid car: must not be null.");
+        }
+        return new CarValue(CarType.of(car), car.getModel(), car.getFuelConsumption(), car.getSpeed(),
+                car.getPrice(), CarType.kWattOf(car));
+    }
+
+    /**
+     * Creates a {@code Car} object of the matching type with the attributes of this value.
+     *
+     * @return a new car
+     */
+    public Car toCar() {
+        return type.create(getModel(), fuelConsumption, speed, price, kWatt);
+    }
+
+    /**
+     * Gets the type of the car.
+     *
+     * @return the type of the car
+     */
+    public CarType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the model of the car.
+     *
+     * @return the model of the car
+     */
+    public String getModel() {
+        return ModelRegistry.nameOf(modelId);
+    }
+
+    /**
+     * Gets the id of the model of the car in the {@link ModelRegistry}.
+     *
+     * @return the model id of the car
+     */
+    public int getModelId() {
+        return modelId;
+    }
+
+    /**
+     * Gets the fuel consumption of the car in liters per 100 km.
+     *
+     * @return the fuel consumption of the car
+     */
+    public double getFuelConsumption() {
+        return fuelConsumption;
+    }
+
+    /**
+     * Gets the speed of the car in km/h.
+     *
+     * @return the speed of the car
+     */
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Gets the price of the car in dollars.
+     *
+     * @return the price of the car
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * Gets the power consumption of the car in kilowatts per 100 km.
+     *
+     * @return the power consumption of an electric car, or 0 for any other car
+     */
+    public double getKWatt() {
+        return kWatt;
+    }
+
+    /**
+     * Returns a string representation of the car value.
+     *
+     * @return a string representation of the car value
+     */
+    @Override
+    public String toString() {
+        return "CarValue{" +
+                "type=" + type +
+                ", model='" + getModel() + '\'' +
+                ", fuelConsumption=" + fuelConsumption +
+                ", speed=" + speed +
+                ", price=" + price +
+                ", kWatt=" + kWatt +
+                '}';
+    }
+
+    /**
+     * Checks whether two car values have the same type and attributes.
+     *
+     * @param obj the object to compare with this car value
+     * @return true if the car values are equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof CarValue other)) return false;
+        return hash == other.hash &&
+                type == other.type &&
+                modelId == other.modelId &&
+                Double.compare(other.fuelConsumption, fuelConsumption) == 0 &&
+                Double.compare(other.speed, speed) == 0 &&
+                Double.compare(other.price, price) == 0 &&
+                Double.compare(other.kWatt, kWatt) == 0;
+    }
+
+    /**
+     * Returns the hash code value computed on construction.
+     *
+     * @return a hash code value for the car value
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -11,7 +11,7 @@ public class ElectricCar extends Car {
     /**
      * The electric car's power consumption measured in kilowatts per 100 km.
      */
-    private double kWatt;
+    private final double kWatt;
 
     /**
      * Constructs an electric car with the specified attributes.
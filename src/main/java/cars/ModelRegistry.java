@@ -0,0 +1,139 @@
+package cars;
+
+import customExceptions.CarException;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code ModelRegistry} class interns car model names to compact integer ids. Every distinct name is stored
+ * once and receives the next free id, starting from 0; ids are never reused, so two cars have the same model if
+ * and only if they have the same model id. The registry is shared by all cars and is safe for concurrent use:
+ * looking up a known name does not lock, and only registering a new name is serialized.
+ * <p>
+ * Names are never freed, since any car may still refer to their ids, so the registry grows with the number of
+ * distinct names ever seen, as reported by {@link #size()}. Model names from untrusted input should be validated
+ * before cars are created from them.
+ * <p>
+ * The registry does not know which cars exist; {@link #countByModel(Iterable)} counts the cars of a fleet by model.
+ */
+public final class ModelRegistry {
+
+    /**
+     * A registered model name with its id.
+     */
+    private static final class Entry {
+        final int id;
+        final String name;
+
+        Entry(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    private static final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Registered entries indexed by id. A new array is published every time the registry grows, so readers never
+     * lock; an id obtained from {@link #entries} is always within the published array.
+     */
+    private static volatile Entry[] byId = new Entry[64];
+    private static int size;
+
+    private ModelRegistry() {
+    }
+
+    /**
+     * Gets the entry of the specified model name, registering the name if it is new.
+     *
+     * @param model the model name
+     * @return the entry of the model name
+     */
+    private static Entry entryOf(String model) {
+        if (model == null) {
+            throw new CarException("Invalid car attributes: model must not be null.");
+        }
+        Entry entry = entries.get(model);
+        return entry != null ? entry : register(model);
+    }
+
+    private static synchronized Entry register(String model) {
+        Entry entry = entries.get(model);
+        if (entry != null) {
+            return entry;
+        }
+        Entry[] table = byId;
+        if (size == table.length) {
+            table = Arrays.copyOf(table, size * 2);
+        }
+        entry = new Entry(size, model);
+        table[size++] = entry;
+        byId = table;
+        entries.put(model, entry);
+        return entry;
+    }
+
+    /**
+     * Gets the id of the specified model name, registering the name if it is new.
+     *
+     * @param model the model name
+     * @return the id of the model name
+     */
+    public static int idOf(String model) {
+        return entryOf(model).id;
+    }
+
+    /**
+     * Gets the model name with the specified id. All cars of that model share the returned instance.
+     *
+     * @param id the model id
+     * @return the model name
+     */
+    public static String nameOf(int id) {
+        Entry[] table = byId;
+        Entry entry = id >= 0 && id < table.length ? table[id] : null;
+        if (entry == null) {
+            throw new CarException("Invalid model id: " + id + ".");
+        }
+        return entry.name;
+    }
+
+    /**
+     * Counts the specified cars by model. The cars are counted by model id, so no model name is hashed or compared.
+     *
+     * @param cars the cars to count, e.g. a fleet
+     * @return the number of cars of each model present, in ascending order of model id
+     */
+    public static Map<String, Long> countByModel(Iterable<? extends Car> cars) {
+        if (cars == null) {
+            throw new CarException("Invalid cars: must not be null.");
+        }
+        long[] counts = new long[byId.length];
+        for (Car car : cars) {
+            int id = car.getModelId();
+            if (id >= counts.length) {
+                counts = Arrays.copyOf(counts, byId.length);
+            }
+            counts[id]++;
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] > 0) {
+                result.put(nameOf(id), counts[id]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of registered model names.
+     *
+     * @return the number of registered model names
+     */
+    public static int size() {
+        return entries.size();
+    }
+}
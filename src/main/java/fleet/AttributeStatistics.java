@@ -0,0 +1,249 @@
+package fleet;
+
+import customExceptions.CarException;
+
+import java.util.Arrays;
+
+/**
+ * The {@code fleet.AttributeStatistics} class holds descriptive statistics of one numeric car attribute over
+ * a fleet: count, sum, minimum, maximum, mean, variance and approximate quantiles.
+ * <p>
+ * The sum uses Kahan compensated summation. Mean and variance are merged with Chan's parallel formulas.
+ * Quantiles come from a mergeable summary of at most {@value #SUMMARY_SIZE} weighted sample points, which
+ * keeps the rank error of a quantile within a few percent of the fleet size.
+ */
+public class AttributeStatistics {
+    static final int SUMMARY_SIZE = 256;
+
+    private long count;
+    private double sum;
+    private double compensation;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private double mean;
+    private double m2; // sum of squared deviations from the mean
+
+    private double[] summaryValues = new double[0];
+    private double[] summaryWeights = new double[0];
+
+    /**
+     * Constructs statistics of the specified values.
+     *
+     * @param values the values, in any order; the array is sorted in place
+     * @param length the number of values to use
+     */
+    AttributeStatistics(double[] values, int length) {
+        for (int i = 0; i < length; i++) {
+            add(values[i]);
+        }
+        Arrays.sort(values, 0, length);
+        double[] weights = new double[length];
+        Arrays.fill(weights, 1);
+        setSummary(values, weights, length);
+    }
+
+    /**
+     * Adds one value to the moments.
+     */
+    private void add(double value) {
+        if (count == 0) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        count++;
+        addToSum(value);
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    /**
+     * Adds a value to the compensated sum.
+     */
+    private void addToSum(double value) {
+        double y = value - compensation;
+        double t = sum + y;
+        compensation = (t - sum) - y;
+        sum = t;
+    }
+
+    /**
+     * Merges the statistics of a disjoint set of values into these statistics.
+     *
+     * @param other the statistics to merge
+     */
+    void merge(AttributeStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            min = other.min;
+            max = other.max;
+        } else {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        mean += delta * other.count / total;
+        count = total;
+        addToSum(other.sum);
+        addToSum(-other.compensation);
+        mergeSummary(other);
+    }
+
+    /**
+     * Merges the sorted weighted sample points of another summary into this one.
+     */
+    private void mergeSummary(AttributeStatistics other) {
+        int length = summaryValues.length + other.summaryValues.length;
+        double[] values = new double[length];
+        double[] weights = new double[length];
+        int i = 0, j = 0;
+        for (int k = 0; k < length; k++) {
+            if (j == other.summaryValues.length
+                    || (i < summaryValues.length && summaryValues[i] <= other.summaryValues[j])) {
+                values[k] = summaryValues[i];
+                weights[k] = summaryWeights[i++];
+            } else {
+                values[k] = other.summaryValues[j];
+                weights[k] = other.summaryWeights[j++];
+            }
+        }
+        setSummary(values, weights, length);
+    }
+
+    /**
+     * Stores sorted weighted sample points as the summary, compressing them to at most
+     * {@value #SUMMARY_SIZE} equally weighted points taken at evenly spaced ranks.
+     */
+    private void setSummary(double[] values, double[] weights, int length) {
+        if (length <= SUMMARY_SIZE) {
+            summaryValues = Arrays.copyOf(values, length);
+            summaryWeights = Arrays.copyOf(weights, length);
+            return;
+        }
+        double total = 0;
+        for (int i = 0; i < length; i++) {
+            total += weights[i];
+        }
+        double step = total / SUMMARY_SIZE;
+        summaryValues = new double[SUMMARY_SIZE];
+        summaryWeights = new double[SUMMARY_SIZE];
+        double cumulative = 0;
+        int source = 0;
+        for (int k = 0; k < SUMMARY_SIZE; k++) {
+            double rank = (k + 0.5) * step;
+            while (source < length - 1 && cumulative + weights[source] < rank) {
+                cumulative += weights[source++];
+            }
+            summaryValues[k] = values[source];
+            summaryWeights[k] = step;
+        }
+    }
+
+    /**
+     * Gets the number of values.
+     *
+     * @return the number of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the sum of the values.
+     *
+     * @return the compensated sum of the values
+     */
+    public double getSum() {
+        return sum - compensation;
+    }
+
+    /**
+     * Gets the smallest value.
+     *
+     * @return the smallest value, or {@code NaN} if there are no values
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Gets the largest value.
+     *
+     * @return the largest value, or {@code NaN} if there are no values
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the arithmetic mean of the values.
+     *
+     * @return the mean, or {@code NaN} if there are no values
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * Gets the population variance of the values.
+     *
+     * @return the variance, or {@code NaN} if there are no values
+     */
+    public double getVariance() {
+        return count == 0 ? Double.NaN : m2 / count;
+    }
+
+    /**
+     * Gets an approximate quantile of the values.
+     *
+     * @param q the quantile to estimate, from 0 (the minimum) to 1 (the maximum)
+     * @return a value of the fleet whose rank is close to {@code q * count}, or {@code NaN} if there are no values
+     */
+    public double getQuantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new CarException("Invalid quantile: must be within [0, 1].");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+        double rank = q * count;
+        double cumulative = 0;
+        for (int i = 0; i < summaryValues.length; i++) {
+            cumulative += summaryWeights[i];
+            if (cumulative >= rank) {
+                return summaryValues[i];
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns a string representation of the statistics.
+     *
+     * @return a string representation of the statistics
+     */
+    @Override
+    public String toString() {
+        return "AttributeStatistics{" +
+                "count=" + count +
+                ", sum=" + getSum() +
+                ", min=" + min +
+                ", max=" + max +
+                ", mean=" + getMean() +
+                ", variance=" + getVariance() +
+                '}';
+    }
+}
@@ -0,0 +1,195 @@
+package fleet;
+
+import cars.Car;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A persistent vector of cars: every modification returns a new vector and leaves this one unchanged, so a
+ * vector can be shared freely between threads. The cars are stored in a trie of 32-way nodes plus a tail
+ * holding the last 1 to 32 cars. Reading takes O(log32 N), appending copies only the tail and, once per 32
+ * appends, one path of the trie, and replacing a car copies one path of at most log32 N nodes; all other
+ * nodes are shared with the previous vector.
+ */
+final class CarVector {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    static final CarVector EMPTY = new CarVector(0, BITS, new Object[WIDTH], new Object[0]);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private CarVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * Creates a vector holding the specified cars in the same order, building the trie bottom up.
+     *
+     * @param cars   the cars
+     * @param length the number of cars to take from the start of the array
+     * @return the vector
+     */
+    static CarVector of(Car[] cars, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        int tailOffset = tailOffset(length);
+        Object[] nodes = new Object[tailOffset >>> BITS];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = Arrays.copyOfRange(cars, i << BITS, (i + 1) << BITS, Object[].class);
+        }
+        int shift = BITS;
+        while (nodes.length > WIDTH) {
+            Object[] parents = new Object[(nodes.length + MASK) >>> BITS];
+            for (int i = 0; i < parents.length; i++) {
+                parents[i] = Arrays.copyOfRange(nodes, i << BITS, (i + 1) << BITS);
+            }
+            nodes = parents;
+            shift += BITS;
+        }
+        Object[] root = Arrays.copyOf(nodes, WIDTH);
+        Object[] tail = Arrays.copyOfRange(cars, tailOffset, length, Object[].class);
+        return new CarVector(length, shift, root, tail);
+    }
+
+    /**
+     * Returns the index of the first car in the tail of a vector of the specified size.
+     */
+    private static int tailOffset(int size) {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the leaf holding the car at the specified index; the car is at {@code index & 31} within it.
+     */
+    private Object[] leafFor(int index) {
+        if (index >= tailOffset(size)) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    Car get(int index) {
+        Objects.checkIndex(index, size);
+        return (Car) leafFor(index)[index & MASK];
+    }
+
+    /**
+     * Returns a vector with the specified car appended.
+     *
+     * @param car the car to append
+     * @return the new vector
+     */
+    CarVector append(Car car) {
+        if (size - tailOffset(size) < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = car;
+            return new CarVector(size + 1, shift, root, newTail);
+        }
+        // The tail is full: push it into the trie, adding a level if the trie is full as well
+        Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+        return new CarVector(size + 1, newShift, newRoot, new Object[]{car});
+    }
+
+    private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+        int index = ((size - 1) >>> level) & MASK;
+        Object[] result = parent.clone();
+        if (level == BITS) {
+            result[index] = tailNode;
+        } else {
+            Object[] child = (Object[]) parent[index];
+            result[index] = child != null ? pushTail(level - BITS, child, tailNode) : newPath(level - BITS, tailNode);
+        }
+        return result;
+    }
+
+    private static Object[] newPath(int level, Object[] node) {
+        if (level == 0) {
+            return node;
+        }
+        Object[] result = new Object[WIDTH];
+        result[0] = newPath(level - BITS, node);
+        return result;
+    }
+
+    /**
+     * Returns a vector with the car at the specified index replaced.
+     *
+     * @param index the index of the car to replace
+     * @param car   the new car
+     * @return the new vector
+     */
+    CarVector set(int index, Car car) {
+        Objects.checkIndex(index, size);
+        if (index >= tailOffset(size)) {
+            Object[] newTail = tail.clone();
+            newTail[index & MASK] = car;
+            return new CarVector(size, shift, root, newTail);
+        }
+        return new CarVector(size, shift, set(shift, root, index, car), tail);
+    }
+
+    private static Object[] set(int level, Object[] node, int index, Car car) {
+        Object[] result = node.clone();
+        if (level == 0) {
+            result[index & MASK] = car;
+        } else {
+            int child = (index >>> level) & MASK;
+            result[child] = set(level - BITS, (Object[]) node[child], index, car);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a vector without the car at the specified index. The following cars all move, so the vector is
+     * rebuilt in O(N).
+     *
+     * @param index the index of the car to remove
+     * @return the new vector
+     */
+    CarVector remove(int index) {
+        Objects.checkIndex(index, size);
+        Car[] cars = toArray();
+        System.arraycopy(cars, index + 1, cars, index, size - index - 1);
+        return of(cars, size - 1);
+    }
+
+    /**
+     * Copies the cars into a new array, one leaf at a time.
+     *
+     * @return the cars in order
+     */
+    Car[] toArray() {
+        Car[] result = new Car[size];
+        for (int i = 0; i < size; i += WIDTH) {
+            System.arraycopy(leafFor(i), 0, result, i, Math.min(WIDTH, size - i));
+        }
+        return result;
+    }
+}
@@ -1,59 +1,400 @@
 package fleet;
 
 import cars.Car;
+import customExceptions.CarException;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * A custom implementation of the Set interface using an array as the internal storage.
  * The set dynamically adjusts its capacity based on the number of elements it contains.
- *
+ * <p>
+ * Elements are kept in insertion order in {@code array}; an open-addressing hash table of indices into
+ * that array makes {@code add}, {@code contains} and {@code remove} amortized constant time. Removed
+ * elements leave a {@code null} hole in {@code array} which is compacted away once holes start to dominate.
+ * Null elements are not permitted.
+ * <p>
+ * Iterators, spliterators and {@link #forEach} are fail-fast: they throw {@link ConcurrentModificationException}
+ * once the set is structurally modified other than through {@link Iterator#remove()}. For iterating a stable
+ * view while the set keeps changing, {@link #snapshot()} returns a read-only copy that shares the storage with
+ * this set until its next modification.
+ * <p>
+ * The capacity is the number of elements the array holds before it has to grow. It grows by a configurable
+ * factor and shrinks back, never below the initial capacity, once the share of occupied capacity falls below
+ * a configurable threshold; {@link #trimToSize()} releases all spare capacity at once.
+ * <p>
+ * Registered {@link FleetListener}s are notified of every added and removed element, with a single event per
+ * bulk operation.
  */
 public class CarsSet implements Set<Car> {
     private static final int INITIAL_CAPACITY = 15;
-    private static final double GROWTH_FACTOR = 1.3;
+    private static final double DEFAULT_GROWTH_FACTOR = 1.5;
+    private static final double DEFAULT_SHRINK_THRESHOLD = 0.25;
+
+    /**
+     * Marker of a table slot whose element has been removed.
+     */
+    private static final int DELETED = -1;
 
     private Car[] array;
     private int size;
 
+    /**
+     * Cached hash codes of the elements in {@code array}, so rehashing never calls {@code Car.hashCode()}.
+     */
+    private int[] hashes;
+
+    /**
+     * Number of used slots of {@code array}, including holes left by removed elements.
+     */
+    private int end;
+
+    /**
+     * Open-addressing hash table with linear probing. A slot holds {@code 0} when free, {@link #DELETED}
+     * when its element was removed, and {@code index + 1} of an element in {@code array} otherwise.
+     * Its length is a power of two at least twice the length of {@code array}.
+     */
+    private int[] table;
+
+    /**
+     * Number of structural modifications, checked by iterators to detect concurrent modification.
+     */
+    private int modCount;
+
+    /**
+     * Whether {@code array}, {@code hashes} and {@code table} are shared with a snapshot and must be copied
+     * before the next write.
+     */
+    private boolean shared;
+
+    /**
+     * Whether this set is a read-only snapshot.
+     */
+    private boolean readOnly;
+
+    private static final FleetListener[] NO_LISTENERS = new FleetListener[0];
+
+    /**
+     * Registered listeners; replaced on registration, so firing iterates a stable array.
+     */
+    private FleetListener[] listeners = NO_LISTENERS;
+
+    /**
+     * The capacity the set starts with, returns to on {@link #clear()} and never shrinks below.
+     */
+    private final int initialCapacity;
+    private final double growthFactor;
+
+    /**
+     * The share of the capacity below which the set shrinks, or 0 if it never shrinks automatically.
+     */
+    private final double shrinkThreshold;
+
     /**
      * Constructs an empty fleet.CarsSet with the initial capacity.
      */
     public CarsSet() {
-        this.array = new Car[INITIAL_CAPACITY];
-        this.size = 0;
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty fleet.CarsSet with the specified initial capacity and the default growth policy.
+     *
+     * @param initialCapacity the number of elements the set holds before growing, and the smallest capacity
+     *                        it shrinks back to
+     */
+    public CarsSet(int initialCapacity) {
+        this(initialCapacity, DEFAULT_GROWTH_FACTOR, DEFAULT_SHRINK_THRESHOLD);
+    }
+
+    /**
+     * Constructs an empty fleet.CarsSet with the specified capacity policy.
+     *
+     * @param initialCapacity the number of elements the set holds before growing, and the smallest capacity
+     *                        it shrinks back to
+     * @param growthFactor    the factor the capacity is multiplied by when the set is full; greater than 1
+     * @param shrinkThreshold the share of the capacity below which the set shrinks to twice its size; at least
+     *                        0, which disables shrinking, and less than 0.5
+     */
+    public CarsSet(int initialCapacity, double growthFactor, double shrinkThreshold) {
+        this(initialCapacity, initialCapacity, growthFactor, shrinkThreshold);
+    }
+
+    private CarsSet(int capacity, int initialCapacity, double growthFactor, double shrinkThreshold) {
+        if (initialCapacity < 1 || !(growthFactor > 1) || !(shrinkThreshold >= 0 && shrinkThreshold < 0.5)) {
+            throw new CarException("Invalid capacity policy: initial capacity must be positive, growth factor "
+                    + "greater than 1 and shrink threshold within [0, 0.5).");
+        }
+        capacity = Math.max(capacity, 1);
+        this.array = new Car[capacity];
+        this.hashes = new int[capacity];
+        this.table = new int[tableSizeFor(capacity)];
+        this.initialCapacity = initialCapacity;
+        this.growthFactor = growthFactor;
+        this.shrinkThreshold = shrinkThreshold;
+    }
+
+    /**
+     * Creates an empty fleet.CarsSet that holds the specified number of elements without growing. Unlike
+     * {@link #CarsSet(int)}, the set keeps the default initial capacity, so it can shrink back below the
+     * expected size once elements are removed.
+     *
+     * @param expectedSize the number of elements expected to be added
+     * @return the new set
+     */
+    public static CarsSet withExpectedSize(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new CarException("Invalid expected size: must be non-negative.");
+        }
+        return new CarsSet(expectedSize, INITIAL_CAPACITY, DEFAULT_GROWTH_FACTOR, DEFAULT_SHRINK_THRESHOLD);
     }
 
     /**
-     * Constructs a fleet.CarsSet that is a copy of another fleet.CarsSet.
+     * Constructs a fleet.CarsSet that is a copy of another fleet.CarsSet, with the same capacity policy.
      *
      * @param otherSet the fleet.CarsSet to copy
      */
     public CarsSet(CarsSet otherSet) {
-        this.array = Arrays.copyOf(otherSet.array, otherSet.size);
-        this.size = otherSet.size;
+        this(otherSet.size, Math.min(otherSet.initialCapacity, Math.max(otherSet.size, 1)),
+                otherSet.growthFactor, otherSet.shrinkThreshold);
+        for (int i = 0; i < otherSet.end; i++) {
+            if (otherSet.array[i] != null) {
+                array[end] = otherSet.array[i];
+                hashes[end++] = otherSet.hashes[i];
+            }
+        }
+        this.size = end;
+        rebuildTable();
+    }
+
+    /**
+     * Constructs a read-only snapshot sharing the storage of the specified set.
+     *
+     * @param source the set to take a snapshot of
+     * @param readOnly always {@code true}; distinguishes this constructor from the copy constructor
+     */
+    private CarsSet(CarsSet source, boolean readOnly) {
+        this.array = source.array;
+        this.hashes = source.hashes;
+        this.table = source.table;
+        this.end = source.end;
+        this.size = source.size;
+        this.readOnly = readOnly;
+        this.initialCapacity = source.initialCapacity;
+        this.growthFactor = source.growthFactor;
+        this.shrinkThreshold = source.shrinkThreshold;
     }
 
     /**
-     * Constructs a fleet.CarsSet containing elements of the specified collection.
+     * Constructs a fleet.CarsSet containing elements of the specified collection, sized for the collection.
      *
      * @param collection the collection whose elements are to be placed into this set
      */
     public CarsSet(Collection<? extends Car> collection) {
-        this.array = new Car[INITIAL_CAPACITY];
+        this(collection.size(), INITIAL_CAPACITY, DEFAULT_GROWTH_FACTOR, DEFAULT_SHRINK_THRESHOLD);
         this.addAll(collection);
     }
 
     /**
-     * Increases the capacity of the array if the specified minimum capacity is greater than the current capacity.
+     * Returns the smallest power of two table length that keeps the load factor at or below one half
+     * for the specified array capacity.
+     *
+     * @param capacity the capacity of the element array
+     * @return the length of the hash table
+     */
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1) << 1;
+        return Math.max(n, 2);
+    }
+
+    /**
+     * Spreads the higher bits of the hash code of the specified element into the lower ones.
+     *
+     * @param o the element to hash
+     * @return the spread hash code
+     */
+    private static int hash(Object o) {
+        int h = o.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Finds the table slot of the specified element.
+     *
+     * @param o the element to look for
+     * @param h the spread hash code of the element
+     * @return the table slot holding the element, or -1 if the element is absent
+     */
+    private int findSlot(Object o, int h) {
+        int mask = table.length - 1;
+        for (int i = h & mask; ; i = (i + 1) & mask) {
+            int entry = table[i];
+            if (entry == 0) {
+                return -1;
+            }
+            if (entry > 0 && hashes[entry - 1] == h && o.equals(array[entry - 1])) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Places the element stored at the specified index of {@code array} into the hash table.
+     *
+     * @param index the index of the element in {@code array}
+     */
+    private void insertIntoTable(int index) {
+        int mask = table.length - 1;
+        int i = hashes[index] & mask;
+        while (table[i] > 0) {
+            i = (i + 1) & mask;
+        }
+        table[i] = index + 1;
+    }
+
+    /**
+     * Rebuilds the hash table for the current array, dropping all deleted markers.
+     */
+    private void rebuildTable() {
+        int length = tableSizeFor(array.length);
+        if (table == null || table.length != length) {
+            table = new int[length];
+        } else {
+            Arrays.fill(table, 0);
+        }
+        for (int i = 0; i < end; i++) {
+            if (array[i] != null) {
+                insertIntoTable(i);
+            }
+        }
+    }
+
+    /**
+     * Prepares this set for a write: rejects writes to a snapshot and copies the storage shared with snapshots.
+     * Operations call it only once they know they will change the set, so that no-ops never copy the storage.
+     *
+     * @throws UnsupportedOperationException if this set is a snapshot
+     */
+    private void beforeWrite() {
+        checkWritable();
+        if (shared) {
+            array = array.clone();
+            hashes = hashes.clone();
+            table = table.clone();
+            shared = false;
+        }
+    }
+
+    /**
+     * Registers a listener notified of every change to this set. A listener registered several times is
+     * notified several times.
+     *
+     * @param listener the listener to register
+     */
+    public void addListener(FleetListener listener) {
+        Objects.requireNonNull(listener);
+        checkWritable();
+        FleetListener[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+        newListeners[listeners.length] = listener;
+        listeners = newListeners;
+    }
+
+    /**
+     * Unregisters a listener registered by {@link #addListener(FleetListener)}.
+     *
+     * @param listener the listener to unregister
+     * @return true if the listener was registered
+     */
+    public boolean removeListener(FleetListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                FleetListener[] newListeners = new FleetListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, newListeners, 0, i);
+                System.arraycopy(listeners, i + 1, newListeners, i, newListeners.length - i);
+                listeners = newListeners;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void fireAdded(Car car) {
+        for (FleetListener listener : listeners) {
+            listener.carAdded(car);
+        }
+    }
+
+    private void fireRemoved(Car car) {
+        for (FleetListener listener : listeners) {
+            listener.carRemoved(car);
+        }
+    }
+
+    /**
+     * Notifies the listeners of the last {@code count} elements, which were appended by one bulk operation.
+     */
+    private void fireAppended(int count) {
+        if (count > 0 && listeners.length > 0) {
+            List<Car> added = Collections.unmodifiableList(Arrays.asList(array).subList(end - count, end));
+            for (FleetListener listener : listeners) {
+                listener.carsAdded(added);
+            }
+        }
+    }
+
+    private void fireRemoved(List<Car> removed) {
+        if (removed != null && !removed.isEmpty()) {
+            List<Car> view = Collections.unmodifiableList(removed);
+            for (FleetListener listener : listeners) {
+                listener.carsRemoved(view);
+            }
+        }
+    }
+
+    /**
+     * Rejects writes to a snapshot.
+     *
+     * @throws UnsupportedOperationException if this set is a snapshot
+     */
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Snapshot is read-only");
+        }
+    }
+
+    /**
+     * Returns a read-only snapshot of this set in O(1). The snapshot shares the storage of this set, which copies
+     * it on its next modification, so the snapshot never changes and can be iterated while this set is modified.
+     * To iterate from another thread, the snapshot has to be published safely, e.g. through a volatile field.
      *
-     * @param minCapacity the desired minimum capacity
+     * @return a read-only snapshot of this set
      */
-    private void ensureCapacity(int minCapacity) {
-        if (minCapacity > array.length) {
-            int newCapacity = (int) (array.length * GROWTH_FACTOR);
-            array = Arrays.copyOf(array, Math.max(newCapacity, minCapacity));
+    public CarsSet snapshot() {
+        if (readOnly) {
+            return this;
         }
+        shared = true;
+        return new CarsSet(this, true);
+    }
+
+    /**
+     * Moves all elements to the front of the array, closing the holes left by removed elements
+     * while preserving insertion order.
+     */
+    private void compact() {
+        modCount++;
+        int w = 0;
+        for (int r = 0; r < end; r++) {
+            if (array[r] != null) {
+                array[w] = array[r];
+                hashes[w++] = hashes[r];
+            }
+        }
+        Arrays.fill(array, w, end, null);
+        end = w;
+        rebuildTable();
     }
 
     /**
@@ -84,12 +425,7 @@ public class CarsSet implements Set<Car> {
      */
     @Override
     public boolean contains(Object o) {
-        for (int i = 0; i < size; i++) {
-            if (Objects.equals(o, array[i])) {
-                return true;
-            }
-        }
-        return false;
+        return o != null && findSlot(o, hash(o)) >= 0;
     }
 
     /**
@@ -103,10 +439,12 @@ public class CarsSet implements Set<Car> {
     }
 
     /**
-     * An iterator for the fleet.CarsSet.
+     * A fail-fast iterator for the fleet.CarsSet.
      */
     private class CarsSetIterator implements Iterator<Car> {
         private int index = 0;
+        private int lastReturned = -1;
+        private int expectedModCount = modCount;
 
         /**
          * Returns true if the iteration has more elements.
@@ -115,7 +453,11 @@ public class CarsSet implements Set<Car> {
          */
         @Override
         public boolean hasNext() {
-            return index < size;
+            checkForComodification();
+            while (index < end && array[index] == null) {
+                index++;
+            }
+            return index < end;
         }
 
         /**
@@ -129,7 +471,151 @@ public class CarsSet implements Set<Car> {
             if (!hasNext()) {
                 throw new NoSuchElementException();
             }
-            return (Car) array[index++];
+            lastReturned = index;
+            return array[index++];
+        }
+
+        /**
+         * Removes the last element returned by this iterator in constant time. The element leaves a hole that
+         * is not compacted during the iteration.
+         *
+         * @throws IllegalStateException if {@code next} has not been called since the last removal
+         */
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            beforeWrite();
+            Car removed = array[lastReturned];
+            table[findSlot(removed, hashes[lastReturned])] = DELETED;
+            array[lastReturned] = null;
+            size--;
+            expectedModCount = ++modCount;
+            lastReturned = -1;
+            fireRemoved(removed);
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Performs the given action for each element of this set in insertion order, without an iterator.
+     *
+     * @param action the action to be performed for each element
+     */
+    @Override
+    public void forEach(Consumer<? super Car> action) {
+        Objects.requireNonNull(action);
+        final Car[] elementData = array;
+        final int fence = end;
+        final int expectedModCount = modCount;
+        for (int i = 0; i < fence && modCount == expectedModCount; i++) {
+            Car car = elementData[i];
+            if (car != null) {
+                action.accept(car);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Creates a spliterator over the elements in this set, splitting the backing array into halves.
+     * The spliterator is {@code SIZED} and {@code SUBSIZED} when the array has no holes of removed elements.
+     *
+     * @return a spliterator over the elements in this set
+     */
+    @Override
+    public Spliterator<Car> spliterator() {
+        return new CarsSetSpliterator(0, end, end == size, modCount);
+    }
+
+    /**
+     * A spliterator over a range of the backing array, skipping the holes of removed elements.
+     */
+    private final class CarsSetSpliterator implements Spliterator<Car> {
+        private static final int BASE_CHARACTERISTICS = ORDERED | DISTINCT | NONNULL;
+
+        private int origin;
+        private final int fence;
+
+        /**
+         * Whether the range has no holes, so that its length is the exact number of elements.
+         */
+        private final boolean exact;
+        private final int expectedModCount;
+
+        CarsSetSpliterator(int origin, int fence, boolean exact, int expectedModCount) {
+            this.origin = origin;
+            this.fence = fence;
+            this.exact = exact;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public Spliterator<Car> trySplit() {
+            int lo = origin;
+            int mid = (lo + fence) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            origin = mid;
+            return new CarsSetSpliterator(lo, mid, exact, expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Car> action) {
+            Objects.requireNonNull(action);
+            checkForComodification();
+            while (origin < fence) {
+                Car car = array[origin++];
+                if (car != null) {
+                    action.accept(car);
+                    checkForComodification();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Car> action) {
+            Objects.requireNonNull(action);
+            final Car[] a = array;
+            final int hi = fence;
+            int i = origin;
+            origin = hi;
+            checkForComodification();
+            for (; i < hi; i++) {
+                Car car = a[i];
+                if (car != null) {
+                    action.accept(car);
+                }
+            }
+            checkForComodification();
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - origin;
+        }
+
+        @Override
+        public int characteristics() {
+            return exact ? BASE_CHARACTERISTICS | SIZED | SUBSIZED : BASE_CHARACTERISTICS;
         }
     }
 
@@ -140,18 +626,111 @@ public class CarsSet implements Set<Car> {
      */
     @Override
     public Object[] toArray() {
-        return Arrays.copyOf(array, size);
+        return toArray(new Car[size]);
+    }
+
+    /**
+     * Returns the number of elements this set can hold before it has to grow.
+     *
+     * @return the capacity of this set
+     */
+    public int capacity() {
+        return array.length;
+    }
+
+    /**
+     * Reduces the capacity of this set to its size, releasing the memory of spare capacity and of holes left by
+     * removed elements. The next addition grows the set again.
+     */
+    public void trimToSize() {
+        checkWritable();
+        if (array.length != Math.max(size, 1)) {
+            resize(size);
+        }
+    }
+
+    /**
+     * Moves the elements into new arrays of the specified capacity, closing holes, and rebuilds the table.
+     *
+     * @param capacity the new capacity, at least {@code size}
+     */
+    private void resize(int capacity) {
+        capacity = Math.max(capacity, 1);
+        Car[] newArray = new Car[capacity];
+        int[] newHashes = new int[capacity];
+        int w = 0;
+        for (int r = 0; r < end; r++) {
+            if (array[r] != null) {
+                newArray[w] = array[r];
+                newHashes[w++] = hashes[r];
+            }
+        }
+        array = newArray;
+        hashes = newHashes;
+        end = w;
+        shared = false;
+        table = null;
+        rebuildTable();
+        modCount++;
+    }
+
+    /**
+     * Shrinks the array once the elements occupy less than the shrink threshold of the capacity.
+     *
+     * @return true if the set was shrunk
+     */
+    private boolean shrinkIfSparse() {
+        if (array.length > initialCapacity && size < array.length * shrinkThreshold) {
+            resize(Math.max(initialCapacity, size * 2));
+            return true;
+        }
+        return false;
     }
 
     /**
-     * Increases the capacity of the array if necessary and specified minimum capacity is greater than the current capacity.
+     * Increases the capacity of the array if it is full.
      */
-    // Перевірка та збільшення масиву при необхідності
     private void ensureCapacity() {
-        if (size == array.length) {
-            int newSize = Math.max(INITIAL_CAPACITY, (int) (array.length * GROWTH_FACTOR));
-            array = Arrays.copyOf(array, newSize);
+        if (end == array.length) {
+            reserve(1);
+        }
+    }
+
+    /**
+     * Makes room for the specified number of additional elements at the end of the array, growing at most
+     * once. When a noticeable share of the array is taken by holes of removed elements and closing them makes
+     * enough room, the holes are compacted away instead of growing.
+     *
+     * @param additional the number of elements about to be added
+     */
+    private void reserve(int additional) {
+        if (end + additional <= array.length) {
+            return;
+        }
+        int holes = end - size;
+        if (holes > 0 && holes >= (end >>> 2) && size + additional <= array.length) {
+            compact();
+            return;
         }
+        long needed = (long) size + additional;
+        int newCapacity = (int) Math.min(Integer.MAX_VALUE - 8,
+                Math.max(needed, Math.max(INITIAL_CAPACITY, (long) (array.length * growthFactor))));
+        resize(newCapacity);
+    }
+
+    /**
+     * Appends an element known to be absent from this set.
+     *
+     * @param e the element to append
+     * @param h the spread hash code of the element
+     */
+    private void append(Car e, int h) {
+        ensureCapacity();
+        modCount++;
+        array[end] = e;
+        hashes[end] = h;
+        insertIntoTable(end++);
+        size++;
     }
 
     /**
@@ -162,11 +741,21 @@ public class CarsSet implements Set<Car> {
      * @return an array containing all of the elements in this set
      */
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T[] toArray(T[] a) {
         if (a.length < size) {
-            return (T[]) Arrays.copyOf(array, size, a.getClass());
+            a = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+        }
+        if (end == size) {
+            System.arraycopy(array, 0, a, 0, size);
+        } else {
+            int w = 0;
+            for (int r = 0; r < end; r++) {
+                if (array[r] != null) {
+                    a[w++] = (T) array[r];
+                }
+            }
         }
-        System.arraycopy(array, 0, a, 0, size);
         if (a.length > size) {
             a[size] = null;
         }
@@ -178,15 +767,20 @@ public class CarsSet implements Set<Car> {
      *
      * @param e the element to be added to this set
      * @return true if this set did not already contain the specified element
+     * @throws NullPointerException if the specified element is null
      */
     @Override
     public boolean add(Car e) {
-        if (contains(e)) {
+        Objects.requireNonNull(e);
+        checkWritable();
+        int h = hash(e);
+        if (findSlot(e, h) >= 0) {
             return false; // Вже міститься, не додаємо знову
         }
 
-        ensureCapacity(); // Перевірка і збільшення масиву при необхідності
-        array[size++] = e;
+        beforeWrite();
+        append(e, h); // Перевірка і збільшення масиву при необхідності
+        fireAdded(e);
         return true;
     }
 
@@ -198,26 +792,36 @@ public class CarsSet implements Set<Car> {
      */
     @Override
     public boolean remove(Object o) {
-        for (int i = 0; i < size; i++) {
-            if (Objects.equals(o, array[i])) {
-                removeAtIndex(i);
-                return true;
-            }
+        checkWritable();
+        if (o == null) {
+            return false;
         }
-        return false;
+        int slot = findSlot(o, hash(o));
+        if (slot < 0) {
+            return false;
+        }
+        beforeWrite();
+        Car removed = array[table[slot] - 1];
+        removeAtSlot(slot);
+        fireRemoved(removed);
+        return true;
     }
 
     /**
-     * Removes the element at the specified index and adjusts the array accordingly.
+     * Removes the element referenced by the specified table slot, leaving a hole in the array.
+     * The array shrinks once it is sparse, and is compacted once less than half of its used slots hold elements.
      *
-     * @param index the index of the element to be removed
+     * @param slot the table slot of the element to be removed
      */
-    private void removeAtIndex(int index) {
-        int numMoved = size - index - 1;
-        if (numMoved > 0) {
-            System.arraycopy(array, index + 1, array, index, numMoved);
+    private void removeAtSlot(int slot) {
+        modCount++;
+        int index = table[slot] - 1;
+        table[slot] = DELETED;
+        array[index] = null; // Очищуємо елемент, залишаючи "дірку"
+        size--;
+        if (!shrinkIfSparse() && size < (end >>> 1)) {
+            compact();
         }
-        array[--size] = null; // Зменшуємо розмір і очищуємо останній елемент
     }
 
     /**
@@ -244,13 +848,44 @@ public class CarsSet implements Set<Car> {
      */
     @Override
     public boolean addAll(Collection<? extends Car> c) {
-        boolean modified = false;
-        for (Car element : c) {
-            if (add(element)) {
-                modified = true;
+        checkWritable();
+        // The storage is prepared on the first absent element, so adding only present elements copies nothing
+        if (c instanceof CarsSet other) {
+            if (other == this) {
+                return false;
+            }
+            int oldSize = size;
+            for (int i = 0; i < other.end; i++) {
+                Car element = other.array[i];
+                if (element != null && findSlot(element, other.hashes[i]) < 0) {
+                    if (size == oldSize) {
+                        beforeWrite();
+                        reserve(other.size - i);
+                    }
+                    append(element, other.hashes[i]);
+                }
+            }
+            fireAppended(size - oldSize);
+            return size != oldSize;
+        }
+        int oldSize = size;
+        try {
+            for (Car element : c) {
+                Objects.requireNonNull(element);
+                int h = hash(element);
+                if (findSlot(element, h) < 0) {
+                    if (size == oldSize) {
+                        beforeWrite();
+                        reserve(c.size());
+                    }
+                    append(element, h);
+                }
             }
+        } finally {
+            // Appended elements stay at the end of the array even if it was compacted meanwhile
+            fireAppended(size - oldSize);
         }
-        return modified;
+        return size != oldSize;
     }
 
     /**
@@ -277,6 +912,82 @@ public class CarsSet implements Set<Car> {
         return batchRemove(c, false);
     }
 
+    /**
+     * Removes all elements of this set that satisfy the given predicate in a single pass, then shrinks the set
+     * if it became sparse.
+     *
+     * @param filter a predicate returning true for elements to be removed
+     * @return true if any elements were removed
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Car> filter) {
+        Objects.requireNonNull(filter);
+        checkWritable();
+        final int expectedModCount = modCount;
+        // Find the first match without writing, so that a filter matching nothing copies nothing
+        int first = 0;
+        while (first < end && (array[first] == null || !filter.test(array[first]))) {
+            first++;
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        if (first == end) {
+            return false;
+        }
+        beforeWrite();
+        final Car[] elementData = array;
+        final int oldSize = size;
+        final List<Car> removed = listeners.length == 0 ? null : new ArrayList<>();
+        if (removed != null) {
+            removed.add(elementData[first]);
+        }
+        boolean concurrent;
+        // Elements before the first one to remove are all kept, so only the holes among them are closed
+        int w = 0;
+        for (int i = 0; i < first; i++) {
+            if (elementData[i] != null) {
+                hashes[w] = hashes[i];
+                elementData[w++] = elementData[i];
+            }
+        }
+        int r = first + 1;
+        try {
+            for (; r < end; r++) {
+                Car car = elementData[r];
+                if (car != null) {
+                    if (!filter.test(car)) {
+                        hashes[w] = hashes[r];
+                        elementData[w++] = car;
+                    } else if (removed != null) {
+                        removed.add(car);
+                    }
+                }
+            }
+        } finally {
+            concurrent = modCount != expectedModCount;
+            // Keep the elements that were not tested yet if the predicate threw
+            for (; r < end; r++) {
+                if (elementData[r] != null) {
+                    hashes[w] = hashes[r];
+                    elementData[w++] = elementData[r];
+                }
+            }
+            Arrays.fill(elementData, w, end, null);
+            end = w;
+            size = w;
+            modCount++;
+            if (!shrinkIfSparse()) {
+                rebuildTable();
+            }
+            fireRemoved(removed);
+        }
+        if (concurrent) {
+            throw new ConcurrentModificationException();
+        }
+        return w != oldSize;
+    }
+
     /**
      * Removes elements from this set based on the specified condition.
      *
@@ -285,35 +996,183 @@ public class CarsSet implements Set<Car> {
      * @return true if this set is modified as a result of the operation
      */
     private boolean batchRemove(Collection<?> c, boolean complement) {
-        final Object[] elementData = array;
-        int r = 0, w = 0;
-        boolean modified = false;
+        checkWritable();
+        if (c == this) {
+            // Probing this set while compacting it in place would miss moved elements
+            boolean modified = !complement && size > 0;
+            if (modified) {
+                clear();
+            }
+            return modified;
+        }
+        // Another fleet.CarsSet is probed with the cached hash codes, which both sets spread the same way
+        final CarsSet other = c instanceof CarsSet set ? set : null;
+        // Find the first element to remove without writing, so that a call removing nothing copies nothing
+        int first = 0;
+        while (first < end && (array[first] == null
+                || (other != null ? other.findSlot(array[first], hashes[first]) >= 0 : c.contains(array[first])) == complement)) {
+            first++;
+        }
+        if (first == end) {
+            return false;
+        }
+        beforeWrite();
+        modCount++;
+        final Car[] elementData = array;
+        final List<Car> removed = listeners.length == 0 ? null : new ArrayList<>();
+        if (removed != null) {
+            removed.add(elementData[first]);
+        }
+        final int oldSize = size;
+        // Elements before the first one to remove are all kept, so only the holes among them are closed
+        int w = 0;
+        for (int i = 0; i < first; i++) {
+            if (elementData[i] != null) {
+                hashes[w] = hashes[i];
+                elementData[w++] = elementData[i];
+            }
+        }
+        int r = first + 1;
         try {
-            for (; r < size; r++) {
-                if (c.contains(elementData[r]) == complement) {
+            for (; r < end; r++) {
+                if (elementData[r] == null) {
+                    continue;
+                }
+                if ((other != null ? other.findSlot(elementData[r], hashes[r]) >= 0 : c.contains(elementData[r])) == complement) {
+                    hashes[w] = hashes[r];
                     elementData[w++] = elementData[r];
-                    modified = true; // Set modified to true when an element is removed
+                } else if (removed != null) {
+                    removed.add(elementData[r]);
                 }
             }
         } finally {
-            // Clearing memory from "extra" elements that were replaced
-            for (int i = w; i < size; i++) {
-                elementData[i] = null;
+            // Keep the elements that were not checked yet if c.contains threw
+            for (; r < end; r++) {
+                if (elementData[r] != null) {
+                    hashes[w] = hashes[r];
+                    elementData[w++] = elementData[r];
+                }
             }
+            // Clearing memory from "extra" elements that were replaced
+            Arrays.fill(elementData, w, end, null);
+            end = w;
             size = w;
+            if (!shrinkIfSparse()) {
+                rebuildTable();
+            }
+            fireRemoved(removed);
         }
-        return modified;
+        return w != oldSize;
+    }
+
+    /**
+     * Checks whether the specified set contains the element stored at the specified index of this set,
+     * reusing its cached hash code.
+     *
+     * @param index the index of the element in {@code array}
+     * @param set   the set to look into
+     * @return true if {@code set} contains the element
+     */
+    private boolean isIn(int index, CarsSet set) {
+        return set.findSlot(array[index], hashes[index]) >= 0;
     }
 
+    /**
+     * Appends to {@code result} the elements of {@code source} that are, or are not, contained in {@code filter}.
+     *
+     * @param source   the set whose elements are copied in insertion order
+     * @param filter   the set to probe, or {@code null} to copy every element
+     * @param contained whether to copy the elements contained in {@code filter} or the ones absent from it
+     * @param result   the set receiving the elements, which must not contain any of them yet
+     */
+    private static void copyInto(CarsSet source, CarsSet filter, boolean contained, CarsSet result) {
+        for (int i = 0; i < source.end; i++) {
+            if (source.array[i] != null && (filter == null || source.isIn(i, filter) == contained)) {
+                result.append(source.array[i], source.hashes[i]);
+            }
+        }
+    }
 
     /**
-     * Removes all elements from this set.
+     * Returns a new set holding the elements of both sets: the elements of {@code a} in their order, followed by
+     * the elements only in {@code b}. Neither set is modified. Runs in O(N + M) expected time.
+     *
+     * @param a the first set
+     * @param b the second set
+     * @return the union of the sets
+     */
+    public static CarsSet union(CarsSet a, CarsSet b) {
+        CarsSet result = withExpectedSize(a.size + b.size);
+        copyInto(a, null, false, result);
+        copyInto(b, a, false, result);
+        return result;
+    }
+
+    /**
+     * Returns a new set holding the elements of {@code a} that are also in {@code b}, in the order of {@code a}.
+     * Neither set is modified. Runs in O(N) expected time.
+     *
+     * @param a the first set
+     * @param b the second set
+     * @return the intersection of the sets
+     */
+    public static CarsSet intersection(CarsSet a, CarsSet b) {
+        CarsSet result = withExpectedSize(Math.min(a.size, b.size));
+        copyInto(a, b, true, result);
+        return result;
+    }
+
+    /**
+     * Returns a new set holding the elements of {@code a} that are not in {@code b}, in the order of {@code a}.
+     * Neither set is modified. Runs in O(N) expected time.
+     *
+     * @param a the set to subtract from
+     * @param b the set to subtract
+     * @return the difference of the sets
+     */
+    public static CarsSet difference(CarsSet a, CarsSet b) {
+        CarsSet result = withExpectedSize(a.size);
+        copyInto(a, b, false, result);
+        return result;
+    }
+
+    /**
+     * Returns a new set holding the elements that are in exactly one of the sets: the elements only in {@code a}
+     * in their order, followed by the elements only in {@code b}. Neither set is modified. Runs in O(N + M)
+     * expected time.
+     *
+     * @param a the first set
+     * @param b the second set
+     * @return the symmetric difference of the sets
+     */
+    public static CarsSet symmetricDifference(CarsSet a, CarsSet b) {
+        CarsSet result = withExpectedSize(a.size + b.size);
+        copyInto(a, b, false, result);
+        copyInto(b, a, false, result);
+        return result;
+    }
+
+    /**
+     * Removes all elements from this set and shrinks it back to its initial capacity.
      */
     @Override
     public void clear() {
-        for (int i = 0; i < size; i++) {
-            array[i] = null;
+        checkWritable();
+        modCount++;
+        if (shared || array.length > initialCapacity) {
+            // Shrink back to the initial capacity; storage shared with snapshots is left to them
+            array = new Car[initialCapacity];
+            hashes = new int[initialCapacity];
+            table = new int[tableSizeFor(initialCapacity)];
+            shared = false;
+        } else {
+            Arrays.fill(array, 0, end, null);
+            Arrays.fill(table, 0);
         }
+        end = 0;
         size = 0;
+        for (FleetListener listener : listeners) {
+            listener.cleared();
+        }
     }
 }
@@ -0,0 +1,122 @@
+package fleet;
+
+/**
+ * The numeric loops over {@code double[]} columns shared by the columnar stores. The scalar implementation in
+ * this class is always available; when the {@code jdk.incubator.vector} module is present at run time
+ * ({@code --add-modules jdk.incubator.vector}), {@link #get()} returns a SIMD implementation instead. Setting the
+ * system property {@code fleet.vector} to {@code false} forces the scalar loops.
+ * <p>
+ * All methods work on the first {@code length} elements of a column. Range bounds are inclusive.
+ */
+class ColumnKernels {
+    private static final ColumnKernels INSTANCE = select();
+
+    ColumnKernels() {
+    }
+
+    private static ColumnKernels select() {
+        if (Boolean.parseBoolean(System.getProperty("fleet.vector", "true"))) {
+            try {
+                return new VectorColumnKernels();
+            } catch (LinkageError e) {
+                // The incubator module is not resolved in this JVM, fall back to the scalar loops
+            }
+        }
+        return new ColumnKernels();
+    }
+
+    /**
+     * Gets the fastest implementation available in this JVM.
+     *
+     * @return the kernels to use
+     */
+    static ColumnKernels get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Checks whether this implementation uses SIMD instructions.
+     *
+     * @return true if the loops are vectorized
+     */
+    boolean isVectorized() {
+        return false;
+    }
+
+    double sum(double[] column, int length) {
+        double sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += column[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @return the smallest value, or {@code NaN} if {@code length} is 0
+     */
+    double min(double[] column, int length) {
+        if (length == 0) {
+            return Double.NaN;
+        }
+        double min = column[0];
+        for (int i = 1; i < length; i++) {
+            min = Math.min(min, column[i]);
+        }
+        return min;
+    }
+
+    /**
+     * @return the largest value, or {@code NaN} if {@code length} is 0
+     */
+    double max(double[] column, int length) {
+        if (length == 0) {
+            return Double.NaN;
+        }
+        double max = column[0];
+        for (int i = 1; i < length; i++) {
+            max = Math.max(max, column[i]);
+        }
+        return max;
+    }
+
+    /**
+     * @return the position of the first value within the range, or -1 if there is none
+     */
+    int indexOfRange(double[] column, int length, double min, double max) {
+        for (int i = 0; i < length; i++) {
+            double value = column[i];
+            if (value >= min && value <= max) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    int countInRange(double[] column, int length, double min, double max) {
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            double value = column[i];
+            if (value >= min && value <= max) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Computes the bit mask of the values within the range: bit {@code i % 64} of {@code words[i / 64]} is set
+     * if the value at position {@code i} is within the range.
+     *
+     * @return the words of the mask
+     */
+    long[] rangeMask(double[] column, int length, double min, double max) {
+        long[] words = new long[(length + 63) >>> 6];
+        for (int i = 0; i < length; i++) {
+            double value = column[i];
+            if (value >= min && value <= max) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,450 @@
+package fleet;
+
+import cars.Car;
+import cars.CarAttribute;
+import cars.CarType;
+import cars.ModelRegistry;
+import customExceptions.CarException;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The {@code fleet.ColumnarFleet} class stores a fleet of cars as parallel primitive columns instead of
+ * an array of {@code Car} objects. Every car occupies one row made of a type tag, an interned model id,
+ * fuel consumption, speed, price and power consumption. Queries run as plain loops over {@code double[]}
+ * columns, and {@code Car} objects are only created on demand by {@link #getCar(int)}.
+ * <p>
+ * Aggregates and range scans go through {@link ColumnKernels}, which use SIMD instructions when the
+ * {@code jdk.incubator.vector} module is added to the JVM and plain loops otherwise.
+ */
+public class ColumnarFleet {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private byte[] types;
+    private int[] models;
+    private double[] fuelConsumptions; // in liters per 100 km
+    private double[] speeds; // in km/h
+    private double[] prices; // in dollars
+    private double[] kWatts; // in kilowatts per 100 km
+    private int size;
+
+    /**
+     * Distinct model names, indexed by model id. Model ids are local to the fleet so that they stay dense;
+     * {@code localModelIds} maps a {@link ModelRegistry} id to the local id plus one, or 0 if the model is new.
+     */
+    private String[] modelNames = new String[INITIAL_CAPACITY];
+    private int modelCount;
+    private int[] localModelIds = new int[INITIAL_CAPACITY];
+
+    /**
+     * Constructs an empty columnar fleet.
+     */
+    public ColumnarFleet() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty columnar fleet able to hold the specified number of cars without growing.
+     *
+     * @param initialCapacity the number of cars to reserve room for
+     */
+    public ColumnarFleet(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new CarException("Invalid fleet capacity: must be non-negative.");
+        }
+        types = new byte[initialCapacity];
+        models = new int[initialCapacity];
+        fuelConsumptions = new double[initialCapacity];
+        speeds = new double[initialCapacity];
+        prices = new double[initialCapacity];
+        kWatts = new double[initialCapacity];
+    }
+
+    /**
+     * Constructs a columnar fleet holding the specified cars in the same order.
+     *
+     * @param cars an array of cars
+     */
+    public ColumnarFleet(Car[] cars) {
+        this(cars == null ? 0 : cars.length);
+        if (cars == null) {
+            throw new CarException("Invalid fleet: cars must not be null.");
+        }
+        for (Car car : cars) {
+            add(car);
+        }
+    }
+
+    /**
+     * Constructs a columnar fleet holding the cars of the specified taxi fleet in the same order.
+     *
+     * @param taxiFleet the taxi fleet to convert
+     */
+    public ColumnarFleet(TaxiFleet taxiFleet) {
+        this(taxiFleet.getCars());
+    }
+
+    /**
+     * Increases the capacity of the columns if they cannot hold one more car.
+     */
+    private void ensureCapacity() {
+        if (size == prices.length) {
+            int newCapacity = Math.max(INITIAL_CAPACITY, prices.length + (prices.length >> 1));
+            types = Arrays.copyOf(types, newCapacity);
+            models = Arrays.copyOf(models, newCapacity);
+            fuelConsumptions = Arrays.copyOf(fuelConsumptions, newCapacity);
+            speeds = Arrays.copyOf(speeds, newCapacity);
+            prices = Arrays.copyOf(prices, newCapacity);
+            kWatts = Arrays.copyOf(kWatts, newCapacity);
+        }
+    }
+
+    /**
+     * Gets the local id of the model with the specified registry id, adding the model if it is new.
+     *
+     * @param registryId the id of the model in the {@link ModelRegistry}
+     * @return the local id of the model
+     */
+    private int internModel(int registryId) {
+        if (registryId >= localModelIds.length) {
+            localModelIds = Arrays.copyOf(localModelIds, Math.max(registryId + 1, localModelIds.length * 2));
+        }
+        int id = localModelIds[registryId] - 1;
+        if (id >= 0) {
+            return id;
+        }
+        if (modelCount == modelNames.length) {
+            modelNames = Arrays.copyOf(modelNames, modelCount * 2);
+        }
+        modelNames[modelCount] = ModelRegistry.nameOf(registryId);
+        localModelIds[registryId] = modelCount + 1;
+        return modelCount++;
+    }
+
+    /**
+     * Appends the specified car as a new row.
+     *
+     * @param car the car to append
+     */
+    public void add(Car car) {
+        if (car == null) {
+            throw new CarException("Invalid car: must not be null.");
+        }
+        addRow(CarType.of(car), car.getModelId(), car.getFuelConsumption(), car.getSpeed(), car.getPrice(),
+                CarType.kWattOf(car));
+    }
+
+    /**
+     * Appends a row with the specified attributes, which are expected to be valid already.
+     *
+     * @param type            the type of the car
+     * @param model           the model of the car
+     * @param fuelConsumption the fuel consumption of the car in liters per 100 km
+     * @param speed           the speed of the car in km/h
+     * @param price           the price of the car in dollars
+     * @param kWatt           the power consumption of the car in kilowatts per 100 km
+     */
+    void addRow(CarType type, String model, double fuelConsumption, double speed, double price, double kWatt) {
+        addRow(type, ModelRegistry.idOf(model), fuelConsumption, speed, price, kWatt);
+    }
+
+    private void addRow(CarType type, int registryId, double fuelConsumption, double speed, double price,
+                        double kWatt) {
+        ensureCapacity();
+        types[size] = (byte) type.ordinal();
+        models[size] = internModel(registryId);
+        fuelConsumptions[size] = fuelConsumption;
+        speeds[size] = speed;
+        prices[size] = price;
+        kWatts[size] = kWatt;
+        size++;
+    }
+
+    /**
+     * Gets the model id of the car in the specified row. Model ids are dense, from 0 to {@link #modelCount()}.
+     *
+     * @param index the row of the car
+     * @return the model id of the car
+     */
+    int modelIdAt(int index) {
+        return models[index];
+    }
+
+    /**
+     * Returns the number of distinct models in the fleet.
+     *
+     * @return the number of distinct models
+     */
+    int modelCount() {
+        return modelCount;
+    }
+
+    /**
+     * Gets the name of the model with the specified id.
+     *
+     * @param id the model id
+     * @return the model name
+     */
+    String modelName(int id) {
+        return modelNames[id];
+    }
+
+    /**
+     * Returns the number of cars in the fleet.
+     *
+     * @return the number of cars in the fleet
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks that the specified row exists.
+     *
+     * @param index the row to check
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Gets the type of the car in the specified row.
+     *
+     * @param index the row of the car
+     * @return the type of the car
+     */
+    public CarType getType(int index) {
+        checkIndex(index);
+        return CarType.ofOrdinal(types[index]);
+    }
+
+    /**
+     * Gets the model of the car in the specified row.
+     *
+     * @param index the row of the car
+     * @return the model of the car
+     */
+    public String getModel(int index) {
+        checkIndex(index);
+        return modelNames[models[index]];
+    }
+
+    /**
+     * Gets the fuel consumption of the car in the specified row in liters per 100 km.
+     *
+     * @param index the row of the car
+     * @return the fuel consumption of the car
+     */
+    public double getFuelConsumption(int index) {
+        checkIndex(index);
+        return fuelConsumptions[index];
+    }
+
+    /**
+     * Gets the speed of the car in the specified row in km/h.
+     *
+     * @param index the row of the car
+     * @return the speed of the car
+     */
+    public double getSpeed(int index) {
+        checkIndex(index);
+        return speeds[index];
+    }
+
+    /**
+     * Gets the price of the car in the specified row in dollars.
+     *
+     * @param index the row of the car
+     * @return the price of the car
+     */
+    public double getPrice(int index) {
+        checkIndex(index);
+        return prices[index];
+    }
+
+    /**
+     * Gets the power consumption of the car in the specified row in kilowatts per 100 km.
+     *
+     * @param index the row of the car
+     * @return the power consumption of an electric car, or 0 for any other car
+     */
+    public double getKWatt(int index) {
+        checkIndex(index);
+        return kWatts[index];
+    }
+
+    /**
+     * Creates a {@code Car} object for the specified row.
+     *
+     * @param index the row of the car
+     * @return a new car with the attributes stored in the row
+     */
+    public Car getCar(int index) {
+        checkIndex(index);
+        return CarType.ofOrdinal(types[index])
+                .create(modelNames[models[index]], fuelConsumptions[index], speeds[index], prices[index], kWatts[index]);
+    }
+
+    /**
+     * Creates {@code Car} objects for all rows.
+     *
+     * @return an array of new cars in row order
+     */
+    public Car[] toArray() {
+        Car[] cars = new Car[size];
+        for (int i = 0; i < size; i++) {
+            cars[i] = getCar(i);
+        }
+        return cars;
+    }
+
+    /**
+     * Calculates the total cost of the fleet.
+     *
+     * @return the total cost of the fleet in dollars
+     */
+    public double calculateFleetCost() {
+        return ColumnKernels.get().sum(prices, size);
+    }
+
+    /**
+     * Gets the column holding the specified attribute.
+     *
+     * @param attribute the attribute
+     * @return the column of the attribute
+     */
+    private double[] column(CarAttribute attribute) {
+        if (attribute == null) {
+            throw new CarException("Invalid attribute: must not be null.");
+        }
+        switch (attribute) {
+            case FUEL_CONSUMPTION:
+                return fuelConsumptions;
+            case SPEED:
+                return speeds;
+            case PRICE:
+                return prices;
+            default:
+                return kWatts;
+        }
+    }
+
+    /**
+     * Finds the smallest value of the specified attribute.
+     *
+     * @param attribute the attribute
+     * @return the smallest value, or {@code NaN} if the fleet is empty
+     */
+    public double min(CarAttribute attribute) {
+        return ColumnKernels.get().min(column(attribute), size);
+    }
+
+    /**
+     * Finds the largest value of the specified attribute.
+     *
+     * @param attribute the attribute
+     * @return the largest value, or {@code NaN} if the fleet is empty
+     */
+    public double max(CarAttribute attribute) {
+        return ColumnKernels.get().max(column(attribute), size);
+    }
+
+    /**
+     * Counts the rows whose value of the specified attribute lies within the specified range.
+     *
+     * @param attribute the attribute to compare
+     * @param min       the minimum value, inclusive
+     * @param max       the maximum value, inclusive
+     * @return the number of rows within the range
+     */
+    public int countInRange(CarAttribute attribute, double min, double max) {
+        return ColumnKernels.get().countInRange(column(attribute), size, min, max);
+    }
+
+    /**
+     * Marks the rows whose value of the specified attribute lies within the specified range. The masks of
+     * several attributes can be combined with {@link BitSet#and(BitSet)} to filter by all of them.
+     *
+     * @param attribute the attribute to compare
+     * @param min       the minimum value, inclusive
+     * @param max       the maximum value, inclusive
+     * @return a bit set with the rows within the range set
+     */
+    public BitSet rangeMask(CarAttribute attribute, double min, double max) {
+        return BitSet.valueOf(ColumnKernels.get().rangeMask(column(attribute), size, min, max));
+    }
+
+    /**
+     * Sorts the rows by fuel consumption in ascending order. Rows with equal fuel consumption keep their order.
+     */
+    public void sortByFuelConsumption() {
+        applyOrder(IndexSorter.order(fuelConsumptions, size));
+    }
+
+    /**
+     * Rearranges all columns so that row {@code i} receives the row previously at {@code order[i]}.
+     * The permutation is applied in place by following its cycles; {@code order} is consumed.
+     *
+     * @param order the permutation to apply
+     */
+    private void applyOrder(int[] order) {
+        for (int start = 0; start < size; start++) {
+            if (order[start] == start) {
+                continue;
+            }
+            byte type = types[start];
+            int model = models[start];
+            double fuelConsumption = fuelConsumptions[start];
+            double speed = speeds[start];
+            double price = prices[start];
+            double kWatt = kWatts[start];
+            int j = start;
+            while (true) {
+                int k = order[j];
+                order[j] = j;
+                if (k == start) {
+                    types[j] = type;
+                    models[j] = model;
+                    fuelConsumptions[j] = fuelConsumption;
+                    speeds[j] = speed;
+                    prices[j] = price;
+                    kWatts[j] = kWatt;
+                    break;
+                }
+                types[j] = types[k];
+                models[j] = models[k];
+                fuelConsumptions[j] = fuelConsumptions[k];
+                speeds[j] = speeds[k];
+                prices[j] = prices[k];
+                kWatts[j] = kWatts[k];
+                j = k;
+            }
+        }
+    }
+
+    /**
+     * Finds the first row whose speed lies within the specified range.
+     *
+     * @param minSpeed the minimum speed of the desired car
+     * @param maxSpeed the maximum speed of the desired car
+     * @return the row of the first car within the speed range, or -1 if no such car is found
+     */
+    public int indexOfSpeedRange(double minSpeed, double maxSpeed) {
+        return ColumnKernels.get().indexOfRange(speeds, size, minSpeed, maxSpeed);
+    }
+
+    /**
+     * Finds a car within the specified speed range.
+     *
+     * @param minSpeed the minimum speed of the desired car
+     * @param maxSpeed the maximum speed of the desired car
+     * @return a car within the specified speed range, or {@code null} if no such car is found
+     */
+    public Car findCarBySpeedRange(double minSpeed, double maxSpeed) {
+        int index = indexOfSpeedRange(minSpeed, maxSpeed);
+        return index < 0 ? null : getCar(index);
+    }
+}
@@ -0,0 +1,324 @@
+package fleet;
+
+import cars.Car;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe set of cars using lock striping. Elements are spread over a power-of-two number of stripes by
+ * their hash code; every stripe is a {@link CarsSet} guarded by its own monitor, so threads working on
+ * different stripes never wait for each other.
+ * <p>
+ * Iterators are weakly consistent: they never throw {@link ConcurrentModificationException}, return every
+ * element that was present for the whole iteration exactly once, and may or may not return elements added or
+ * removed concurrently. Bulk operations lock every stripe at most once but are not atomic as a whole.
+ * Null elements are not permitted.
+ */
+public class ConcurrentCarsSet extends AbstractSet<Car> implements Set<Car> {
+    private static final int MAX_STRIPES = 1 << 16;
+
+    private final CarsSet[] stripes;
+    private final int shift;
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Constructs an empty set with four stripes per available processor.
+     */
+    public ConcurrentCarsSet() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an empty set tuned for the specified number of concurrently updating threads.
+     *
+     * @param concurrencyLevel the expected number of concurrently updating threads
+     */
+    public ConcurrentCarsSet(int concurrencyLevel) {
+        int count = Integer.highestOneBit(Math.max(1, Math.min(concurrencyLevel, MAX_STRIPES)) * 2 - 1);
+        stripes = new CarsSet[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new CarsSet();
+        }
+        shift = Integer.SIZE - Integer.numberOfTrailingZeros(count);
+    }
+
+    /**
+     * Constructs a set containing the elements of the specified collection.
+     *
+     * @param collection the collection whose elements are to be placed into this set
+     */
+    public ConcurrentCarsSet(Collection<? extends Car> collection) {
+        this();
+        addAll(collection);
+    }
+
+    /**
+     * Gets the stripe responsible for the specified element. The stripe is picked from the upper bits of a
+     * multiplicative hash, which are independent of the lower bits the stripe itself uses for its table.
+     *
+     * @param o the element
+     * @return the index of the stripe holding the element
+     */
+    private int stripeOf(Object o) {
+        return shift == Integer.SIZE ? 0 : (o.hashCode() * 0x9E3779B9) >>> shift;
+    }
+
+    /**
+     * Returns the number of elements in this set. The value is exact when no update is in progress.
+     *
+     * @return the number of elements in this set
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(Math.max(size.sum(), 0), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns true if this set contains no elements.
+     *
+     * @return true if this set contains no elements
+     */
+    @Override
+    public boolean isEmpty() {
+        return size.sum() <= 0;
+    }
+
+    /**
+     * Returns true if this set contains the specified element.
+     *
+     * @param o the element to check for containment
+     * @return true if this set contains the specified element
+     */
+    @Override
+    public boolean contains(Object o) {
+        if (o == null) {
+            return false;
+        }
+        CarsSet stripe = stripes[stripeOf(o)];
+        synchronized (stripe) {
+            return stripe.contains(o);
+        }
+    }
+
+    /**
+     * Adds the specified element to this set if it is not already present.
+     *
+     * @param e the element to be added to this set
+     * @return true if this set did not already contain the specified element
+     * @throws NullPointerException if the specified element is null
+     */
+    @Override
+    public boolean add(Car e) {
+        Objects.requireNonNull(e);
+        CarsSet stripe = stripes[stripeOf(e)];
+        synchronized (stripe) {
+            if (!stripe.add(e)) {
+                return false;
+            }
+            size.increment();
+        }
+        return true;
+    }
+
+    /**
+     * Removes the specified element from this set if it is present.
+     *
+     * @param o the object to be removed from this set
+     * @return true if this set contained the specified element
+     */
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        CarsSet stripe = stripes[stripeOf(o)];
+        synchronized (stripe) {
+            if (!stripe.remove(o)) {
+                return false;
+            }
+            size.decrement();
+        }
+        return true;
+    }
+
+    /**
+     * Groups the elements of the specified collection by stripe.
+     *
+     * @param c the collection to group
+     * @return per stripe, the list of its elements, or {@code null} if it has none
+     */
+    private List<Object>[] groupByStripe(Collection<?> c) {
+        @SuppressWarnings("unchecked")
+        List<Object>[] groups = new List[stripes.length];
+        for (Object element : c) {
+            if (element == null) {
+                continue;
+            }
+            int i = stripeOf(element);
+            if (groups[i] == null) {
+                groups[i] = new ArrayList<>();
+            }
+            groups[i].add(element);
+        }
+        return groups;
+    }
+
+    /**
+     * Adds all elements in the specified collection to this set, locking each stripe once.
+     *
+     * @param c the collection containing elements to be added to this set
+     * @return true if this set is modified as a result of the operation
+     * @throws NullPointerException if the specified collection contains a null element
+     */
+    @Override
+    public boolean addAll(Collection<? extends Car> c) {
+        for (Car car : c) {
+            Objects.requireNonNull(car);
+        }
+        List<Object>[] groups = groupByStripe(c);
+        boolean modified = false;
+        for (int i = 0; i < stripes.length; i++) {
+            if (groups[i] == null) {
+                continue;
+            }
+            CarsSet stripe = stripes[i];
+            synchronized (stripe) {
+                for (Object element : groups[i]) {
+                    if (stripe.add((Car) element)) {
+                        size.increment();
+                        modified = true;
+                    }
+                }
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * Removes from this set all elements contained in the specified collection, locking each stripe once.
+     *
+     * @param c the collection containing elements to be removed from this set
+     * @return true if this set is modified as a result of the operation
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        List<Object>[] groups = groupByStripe(c);
+        boolean modified = false;
+        for (int i = 0; i < stripes.length; i++) {
+            if (groups[i] == null) {
+                continue;
+            }
+            CarsSet stripe = stripes[i];
+            synchronized (stripe) {
+                for (Object element : groups[i]) {
+                    if (stripe.remove(element)) {
+                        size.decrement();
+                        modified = true;
+                    }
+                }
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * Retains only the elements in this set that are contained in the specified collection. Membership in
+     * {@code c} is tested without holding any stripe lock, on a snapshot of each stripe, so that {@code c} may
+     * itself be a concurrent set locking its own stripes; the elements to drop are then removed under the lock.
+     *
+     * @param c the collection containing elements to be retained in this set
+     * @return true if this set is modified as a result of the operation
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        boolean modified = false;
+        for (CarsSet stripe : stripes) {
+            CarsSet snapshot;
+            synchronized (stripe) {
+                snapshot = stripe.snapshot();
+            }
+            List<Car> dropped = new ArrayList<>();
+            for (Car element : snapshot) {
+                if (!c.contains(element)) {
+                    dropped.add(element);
+                }
+            }
+            if (dropped.isEmpty()) {
+                continue;
+            }
+            synchronized (stripe) {
+                for (Car element : dropped) {
+                    if (stripe.remove(element)) {
+                        size.decrement();
+                        modified = true;
+                    }
+                }
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * Removes all elements from this set, one stripe at a time.
+     */
+    @Override
+    public void clear() {
+        for (CarsSet stripe : stripes) {
+            synchronized (stripe) {
+                size.add(-stripe.size());
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns a weakly consistent iterator over the elements in this set.
+     *
+     * @return an iterator over the elements in this set
+     */
+    @Override
+    public Iterator<Car> iterator() {
+        return new StripeIterator();
+    }
+
+    /**
+     * An iterator that takes a snapshot of one stripe at a time under its lock and walks the snapshot.
+     * Snapshots share the storage of the stripe, which is only copied if the stripe is modified meanwhile.
+     */
+    private class StripeIterator implements Iterator<Car> {
+        private int nextStripe = 0;
+        private Iterator<Car> current = Collections.emptyIterator();
+        private Car last;
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext() && nextStripe < stripes.length) {
+                CarsSet stripe = stripes[nextStripe++];
+                synchronized (stripe) {
+                    current = stripe.snapshot().iterator();
+                }
+            }
+            return current.hasNext();
+        }
+
+        @Override
+        public Car next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = current.next();
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            ConcurrentCarsSet.this.remove(last);
+            last = null;
+        }
+    }
+}
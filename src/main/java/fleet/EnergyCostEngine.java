@@ -0,0 +1,250 @@
+package fleet;
+
+import cars.Car;
+import cars.CarType;
+import customExceptions.CarException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code fleet.EnergyCostEngine} class computes the operating cost of the cars of a taxi fleet from the prices
+ * of fuel and electricity. Electric cars report a fuel consumption of 0, so ranking them by fuel consumption makes
+ * them look free; the engine charges every car for what it actually consumes, fuel or power, so cars of all types
+ * are ranked on the same scale.
+ * <p>
+ * The fuel and power consumption of every car are read once into primitive columns on construction; this is the
+ * only pass that calls methods of the cars. Every operation takes the {@link EnergyPrices} to apply and computes
+ * the costs per km in a single pass over the columns without type checks: the fuel consumption of an electric
+ * car is 0 and the power consumption of any other car is 0, so one formula fits both. Repricing therefore costs
+ * one primitive pass, not a new engine. The engine captures the cars of the fleet as they are on construction
+ * and positions refer to that order; a new engine is needed after the fleet is reordered or changed.
+ */
+public class EnergyCostEngine {
+    private final Car[] cars;
+    private final double[] fuelConsumptions; // in liters per 100 km
+    private final double[] kWatts; // in kilowatts per 100 km
+
+    /**
+     * Constructs an energy cost engine over the current cars of the specified fleet.
+     *
+     * @param fleet the taxi fleet
+     */
+    public EnergyCostEngine(TaxiFleet fleet) {
+        if (fleet == null) {
+            throw new CarException("Invalid taxi fleet: must not be null.");
+        }
+        this.cars = fleet.getCars();
+        int n = cars.length;
+        this.fuelConsumptions = new double[n];
+        this.kWatts = new double[n];
+        for (int i = 0; i < n; i++) {
+            fuelConsumptions[i] = cars[i].getFuelConsumption();
+            kWatts[i] = CarType.kWattOf(cars[i]);
+        }
+    }
+
+    /**
+     * Returns the number of cars the engine computes costs for.
+     *
+     * @return the number of cars
+     */
+    public int size() {
+        return cars.length;
+    }
+
+    /**
+     * Gets the car at the specified position.
+     *
+     * @param position the position of the car in the fleet on construction
+     * @return the car at the specified position
+     */
+    public Car getCar(int position) {
+        return cars[position];
+    }
+
+    /**
+     * Gets the cost per km of the car at the specified position.
+     *
+     * @param prices   the energy prices
+     * @param position the position of the car in the fleet on construction
+     * @return the cost per km in dollars
+     */
+    public double costPerKm(EnergyPrices prices, int position) {
+        checkPrices(prices);
+        return fuelConsumptions[position] * (prices.getFuelPrice() / 100)
+                + kWatts[position] * (prices.getElectricityPrice() / 100);
+    }
+
+    /**
+     * Computes the costs per km of all cars.
+     *
+     * @param prices the energy prices
+     * @return a new array of the costs per km in dollars, in the order of the cars
+     */
+    public double[] costsPerKm(EnergyPrices prices) {
+        checkPrices(prices);
+        double fuelRate = prices.getFuelPrice() / 100;
+        double electricityRate = prices.getElectricityPrice() / 100;
+        double[] result = new double[cars.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = fuelConsumptions[i] * fuelRate + kWatts[i] * electricityRate;
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the cost of a trip of the car at the specified position.
+     *
+     * @param prices   the energy prices
+     * @param position the position of the car in the fleet on construction
+     * @param distance the distance of the trip in km
+     * @return the cost of the trip in dollars
+     */
+    public double tripCost(EnergyPrices prices, int position, double distance) {
+        checkDistance(distance);
+        return costPerKm(prices, position) * distance;
+    }
+
+    /**
+     * Calculates the cost of the trips of all cars, each driving its own distance.
+     *
+     * @param prices    the energy prices
+     * @param distances the distances in km, one per car in the order of the cars
+     * @return a new array of the trip costs in dollars, in the order of the cars
+     */
+    public double[] tripCosts(EnergyPrices prices, double[] distances) {
+        checkDistances(distances);
+        double[] result = costsPerKm(prices);
+        for (int i = 0; i < result.length; i++) {
+            result[i] *= distances[i];
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the cost of one km driven by every car of the fleet.
+     *
+     * @param prices the energy prices
+     * @return the sum of the costs per km of all cars in dollars
+     */
+    public double fleetCostPerKm(EnergyPrices prices) {
+        checkPrices(prices);
+        // The fuel and power totals are priced once instead of pricing every car
+        double fuel = 0;
+        double power = 0;
+        for (int i = 0; i < cars.length; i++) {
+            fuel += fuelConsumptions[i];
+            power += kWatts[i];
+        }
+        return fuel * (prices.getFuelPrice() / 100) + power * (prices.getElectricityPrice() / 100);
+    }
+
+    /**
+     * Calculates the cost of the fleet when every car drives the same distance.
+     *
+     * @param prices   the energy prices
+     * @param distance the distance driven by each car in km
+     * @return the total cost in dollars
+     */
+    public double fleetCost(EnergyPrices prices, double distance) {
+        checkDistance(distance);
+        return fleetCostPerKm(prices) * distance;
+    }
+
+    /**
+     * Calculates the cost of the fleet when each car drives its own distance.
+     *
+     * @param prices    the energy prices
+     * @param distances the distances in km, one per car in the order of the cars
+     * @return the total cost in dollars
+     */
+    public double fleetCost(EnergyPrices prices, double[] distances) {
+        checkPrices(prices);
+        checkDistances(distances);
+        double fuel = 0;
+        double power = 0;
+        for (int i = 0; i < cars.length; i++) {
+            fuel += fuelConsumptions[i] * distances[i];
+            power += kWatts[i] * distances[i];
+        }
+        return fuel * (prices.getFuelPrice() / 100) + power * (prices.getElectricityPrice() / 100);
+    }
+
+    /**
+     * Lists the cars in ascending order of their cost per km. Cars with equal costs keep their relative order.
+     *
+     * @param prices the energy prices
+     * @return all cars from the cheapest to the most expensive to run
+     */
+    public List<Car> sortedByCost(EnergyPrices prices) {
+        double[] costs = costsPerKm(prices);
+        int[] order = IndexSorter.order(costs, costs.length);
+        List<Car> result = new ArrayList<>(order.length);
+        for (int position : order) {
+            result.add(cars[position]);
+        }
+        return result;
+    }
+
+    /**
+     * Lists the cars with the lowest cost per km without sorting all of them.
+     *
+     * @param prices the energy prices
+     * @param k      the maximum number of cars to list
+     * @return at most {@code k} cars in ascending order of the cost per km
+     */
+    public List<Car> cheapest(EnergyPrices prices, int k) {
+        return top(prices, k, 1);
+    }
+
+    /**
+     * Lists the cars with the highest cost per km without sorting all of them.
+     *
+     * @param prices the energy prices
+     * @param k      the maximum number of cars to list
+     * @return at most {@code k} cars in descending order of the cost per km
+     */
+    public List<Car> mostExpensive(EnergyPrices prices, int k) {
+        return top(prices, k, -1);
+    }
+
+    /**
+     * Selects the cars with the smallest costs per km multiplied by the specified sign.
+     */
+    private List<Car> top(EnergyPrices prices, int k, int sign) {
+        checkPrices(prices);
+        TopK heap = new TopK(Math.min(k, cars.length));
+        double fuelRate = sign * prices.getFuelPrice() / 100;
+        double electricityRate = sign * prices.getElectricityPrice() / 100;
+        for (int i = 0; i < cars.length; i++) {
+            heap.offer(fuelConsumptions[i] * fuelRate + kWatts[i] * electricityRate, i);
+        }
+        List<Car> result = new ArrayList<>();
+        for (int position : heap.toSortedPositions()) {
+            result.add(cars[position]);
+        }
+        return result;
+    }
+
+    private static void checkPrices(EnergyPrices prices) {
+        if (prices == null) {
+            throw new CarException("Invalid energy prices: must not be null.");
+        }
+    }
+
+    private static void checkDistance(double distance) {
+        if (!(distance >= 0)) {
+            throw new CarException("Invalid distance: must be non-negative, got " + distance + ".");
+        }
+    }
+
+    private void checkDistances(double[] distances) {
+        if (distances == null || distances.length != cars.length) {
+            throw new CarException("Invalid distances: expected one distance per car (" + cars.length + ").");
+        }
+        for (double distance : distances) {
+            checkDistance(distance);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package fleet;
+
+import customExceptions.CarException;
+
+/**
+ * The {@code fleet.EnergyPrices} class holds the prices of fuel and electricity that an {@link EnergyCostEngine}
+ * computes operating costs with. Instances are immutable.
+ */
+public final class EnergyPrices {
+    private final double fuelPrice; // in dollars per liter
+    private final double electricityPrice; // in dollars per kWh
+
+    /**
+     * Constructs energy prices.
+     *
+     * @param fuelPrice        the price of fuel in dollars per liter
+     * @param electricityPrice the price of electricity in dollars per kWh
+     */
+    public EnergyPrices(double fuelPrice, double electricityPrice) {
+        if (!(fuelPrice >= 0) || !(electricityPrice >= 0)) {
+            throw new CarException("Invalid energy prices: fuelPrice and electricityPrice must be non-negative.");
+        }
+        this.fuelPrice = fuelPrice;
+        this.electricityPrice = electricityPrice;
+    }
+
+    /**
+     * Gets the price of fuel.
+     *
+     * @return the price of fuel in dollars per liter
+     */
+    public double getFuelPrice() {
+        return fuelPrice;
+    }
+
+    /**
+     * Gets the price of electricity.
+     *
+     * @return the price of electricity in dollars per kWh
+     */
+    public double getElectricityPrice() {
+        return electricityPrice;
+    }
+
+    /**
+     * Returns a string representation of the prices.
+     *
+     * @return a string representation of the prices
+     */
+    @Override
+    public String toString() {
+        return "EnergyPrices{" +
+                "fuelPrice=" + fuelPrice +
+                ", electricityPrice=" + electricityPrice +
+                '}';
+    }
+}
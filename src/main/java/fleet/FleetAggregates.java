@@ -0,0 +1,147 @@
+package fleet;
+
+import cars.Car;
+import cars.CarType;
+
+import java.util.Arrays;
+
+/**
+ * The {@code fleet.FleetAggregates} class maintains the aggregates of a changing fleet incrementally: the number
+ * of cars, the number of cars of each type, the total cost and the mean speed. Registered as a
+ * {@link FleetListener}, it updates them in O(1) per added or removed car, and every getter is O(1), so there is
+ * no need to recompute {@code calculateFleetCost()} after each change.
+ * <p>
+ * Sums are compensated (Neumaier summation), so adding and later removing the same cars many times does not
+ * let rounding errors pile up. Instances are not thread-safe, like the collections they listen to.
+ */
+public class FleetAggregates implements FleetListener {
+    private static final CarType[] TYPES = CarType.values();
+
+    private long count;
+    private final long[] typeCounts = new long[TYPES.length];
+    private final CompensatedSum cost = new CompensatedSum();
+    private final CompensatedSum speed = new CompensatedSum();
+
+    /**
+     * Constructs aggregates of an empty fleet.
+     */
+    public FleetAggregates() {
+    }
+
+    /**
+     * Constructs aggregates of the specified cars.
+     *
+     * @param cars the cars to aggregate
+     */
+    public FleetAggregates(Iterable<? extends Car> cars) {
+        for (Car car : cars) {
+            carAdded(car);
+        }
+    }
+
+    /**
+     * Creates aggregates of the current elements of the specified set and keeps them up to date with its changes.
+     *
+     * @param set the set to track
+     * @return the aggregates, registered as a listener of the set
+     */
+    public static FleetAggregates track(CarsSet set) {
+        FleetAggregates aggregates = new FleetAggregates(set);
+        set.addListener(aggregates);
+        return aggregates;
+    }
+
+    @Override
+    public void carAdded(Car car) {
+        count++;
+        typeCounts[CarType.of(car).ordinal()]++;
+        cost.add(car.getPrice());
+        speed.add(car.getSpeed());
+    }
+
+    @Override
+    public void carRemoved(Car car) {
+        count--;
+        typeCounts[CarType.of(car).ordinal()]--;
+        if (count == 0) {
+            // Start over exactly instead of keeping the residue of the compensated sums
+            cost.reset();
+            speed.reset();
+        } else {
+            cost.add(-car.getPrice());
+            speed.add(-car.getSpeed());
+        }
+    }
+
+    @Override
+    public void cleared() {
+        count = 0;
+        Arrays.fill(typeCounts, 0);
+        cost.reset();
+        speed.reset();
+    }
+
+    /**
+     * Returns the number of cars.
+     *
+     * @return the number of cars
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the number of cars of the specified type.
+     *
+     * @param type the type of the cars
+     * @return the number of cars of the type
+     */
+    public long getCount(CarType type) {
+        return typeCounts[type.ordinal()];
+    }
+
+    /**
+     * Returns the total cost of the cars.
+     *
+     * @return the total cost in dollars
+     */
+    public double getTotalCost() {
+        return cost.value();
+    }
+
+    /**
+     * Returns the mean speed of the cars.
+     *
+     * @return the mean speed in km/h, or {@code NaN} if there are no cars
+     */
+    public double getMeanSpeed() {
+        return count == 0 ? Double.NaN : speed.value() / count;
+    }
+
+    /**
+     * A running sum that keeps the low-order bits lost by each addition in a separate compensation term.
+     */
+    private static final class CompensatedSum {
+        private double sum;
+        private double compensation;
+
+        void add(double value) {
+            double t = sum + value;
+            if (Math.abs(sum) >= Math.abs(value)) {
+                compensation += (sum - t) + value;
+            } else {
+                compensation += (value - t) + sum;
+            }
+            sum = t;
+        }
+
+        double value() {
+            return sum + compensation;
+        }
+
+        void reset() {
+            sum = 0;
+            compensation = 0;
+        }
+    }
+}
@@ -0,0 +1,669 @@
+package fleet;
+
+import cars.Car;
+import cars.CarType;
+import customExceptions.CarException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * The {@code fleet.FleetImporter} class streams cars from a {@link ReadableByteChannel} into a sink in batches.
+ * The input is read through a fixed buffer and parsed in place, one line at a time, without splitting lines
+ * into strings; only the model name of each row becomes a {@code String}. Memory use is therefore bounded by
+ * the buffer, the longest line and one batch, whatever the size of the input.
+ * <p>
+ * Two formats are supported, both in UTF-8 with one car per line:
+ * <ul>
+ *     <li>{@link Format#CSV}: {@code type,model,fuelConsumption,speed,price,kWatt}, where {@code kWatt} is only
+ *     required for electric cars and may be omitted otherwise. Fields may be double-quoted, with {@code ""}
+ *     standing for a quote. An optional header line starting with {@code type} is skipped.</li>
+ *     <li>{@link Format#JSON_LINES}: one flat JSON object per line with the keys {@code type}, {@code model},
+ *     {@code fuelConsumption}, {@code speed}, {@code price} and {@code kWatt}; other keys are ignored.</li>
+ * </ul>
+ * The type is one of {@code Car}, {@code Sedan}, {@code SUV} or {@code ElectricCar} (or {@code Electric}), in any case. Rows are
+ * validated by the car constructors; rows that cannot be parsed or throw {@link CarException} are counted as
+ * rejected and skipped.
+ */
+public class FleetImporter {
+
+    /**
+     * The supported input formats.
+     */
+    public enum Format {
+        CSV,
+        JSON_LINES
+    }
+
+    /**
+     * Receives the imported cars one batch at a time.
+     */
+    public interface Sink {
+        /**
+         * Accepts a batch of cars. The array is reused for the next batch, so it must not be retained.
+         *
+         * @param batch an array whose first {@code count} elements are the imported cars
+         * @param count the number of cars in the batch
+         */
+        void accept(Car[] batch, int count);
+    }
+
+    private static final int DEFAULT_BATCH_SIZE = 4096;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_LINE_LENGTH = 1 << 20;
+
+    private static final int TYPE = 0;
+    private static final int MODEL = 1;
+    private static final int FUEL_CONSUMPTION = 2;
+    private static final int SPEED = 3;
+    private static final int PRICE = 4;
+    private static final int KWATT = 5;
+    private static final int FIELDS = 6;
+
+    private static final byte[][] JSON_KEYS = {
+            ascii("type"), ascii("model"), ascii("fuelConsumption"), ascii("speed"), ascii("price"), ascii("kWatt")
+    };
+    private static final byte[][] TYPE_NAMES = {
+            ascii("car"), ascii("sedan"), ascii("suv"), ascii("electriccar"), ascii("electric")
+    };
+    private static final CarType[] TYPES = {CarType.CAR, CarType.SEDAN, CarType.SUV, CarType.ELECTRIC, CarType.ELECTRIC};
+
+    /**
+     * Exact powers of ten up to the largest one a double represents exactly.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Format format;
+    private final int batchSize;
+
+    /**
+     * Constructs an importer for the specified format with the default batch size.
+     *
+     * @param format the input format
+     */
+    public FleetImporter(Format format) {
+        this(format, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs an importer for the specified format.
+     *
+     * @param format    the input format
+     * @param batchSize the maximum number of cars passed to the sink at once
+     */
+    public FleetImporter(Format format, int batchSize) {
+        if (format == null || batchSize <= 0) {
+            throw new CarException("Invalid importer: format is required and batch size must be positive.");
+        }
+        this.format = format;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Creates a sink adding the cars to a collection, e.g. a {@link CarsSet}.
+     *
+     * @param target the collection to fill
+     * @return the sink
+     */
+    public static Sink into(Collection<? super Car> target) {
+        return (batch, count) -> target.addAll(Arrays.asList(batch).subList(0, count));
+    }
+
+    /**
+     * Creates a sink appending the cars to a columnar fleet.
+     *
+     * @param target the fleet to fill
+     * @return the sink
+     */
+    public static Sink into(ColumnarFleet target) {
+        return (batch, count) -> {
+            for (int i = 0; i < count; i++) {
+                target.add(batch[i]);
+            }
+        };
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Reads the channel to its end and passes the valid cars to the sink. The channel is not closed.
+     *
+     * @param channel the channel to read
+     * @param sink    the sink receiving the cars
+     * @return the report of the import
+     */
+    public ImportReport importFrom(ReadableByteChannel channel, Sink sink) {
+        return new Run(sink).read(channel);
+    }
+
+    /**
+     * The state of one import: the line being assembled, the parsed fields, the current batch and counters.
+     */
+    private class Run {
+        private final Sink sink;
+        private final Car[] batch = new Car[batchSize];
+        private int batchCount;
+
+        private byte[] line = new byte[256];
+        private int lineLength;
+        private boolean lineTooLong;
+
+        private final int[] starts = new int[FIELDS];
+        private final int[] ends = new int[FIELDS];
+
+        private long rows;
+        private long imported;
+        private long rejected;
+        private long bytes;
+        private String lastRejection;
+        private boolean firstLine = true;
+
+        Run(Sink sink) {
+            this.sink = sink;
+        }
+
+        ImportReport read(ReadableByteChannel channel) {
+            long started = System.nanoTime();
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            byte[] data = buffer.array();
+            try {
+                int read;
+                while ((read = channel.read(buffer)) != -1) {
+                    bytes += read;
+                    for (int i = 0; i < buffer.position(); i++) {
+                        byte b = data[i];
+                        if (b == '\n') {
+                            endLine();
+                        } else if (lineLength < MAX_LINE_LENGTH) {
+                            if (lineLength == line.length) {
+                                line = Arrays.copyOf(line, Math.min(line.length * 2, MAX_LINE_LENGTH));
+                            }
+                            line[lineLength++] = b;
+                        } else {
+                            lineTooLong = true;
+                        }
+                    }
+                    buffer.clear();
+                }
+            } catch (IOException e) {
+                throw new CarException("Failed to read fleet import.", e);
+            }
+            endLine();
+            flush();
+            return new ImportReport(rows, imported, rejected, bytes, System.nanoTime() - started, lastRejection);
+        }
+
+        /**
+         * Parses the assembled line and starts a new one.
+         */
+        private void endLine() {
+            int length = lineLength;
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            boolean tooLong = lineTooLong;
+            boolean header = firstLine && format == Format.CSV && isHeader(length);
+            lineLength = 0;
+            lineTooLong = false;
+            if (isBlank(length)) {
+                return;
+            }
+            firstLine = false;
+            if (header) {
+                return;
+            }
+            rows++;
+            if (tooLong) {
+                reject("line longer than " + MAX_LINE_LENGTH + " bytes");
+                return;
+            }
+            Arrays.fill(starts, -1);
+            String error = format == Format.CSV ? splitCsv(length) : splitJson(length);
+            if (error == null) {
+                error = emit();
+            }
+            if (error != null) {
+                reject(error);
+            }
+        }
+
+        private void reject(String reason) {
+            rejected++;
+            lastRejection = "row " + rows + ": " + reason;
+        }
+
+        private boolean isBlank(int length) {
+            for (int i = 0; i < length; i++) {
+                if (line[i] != ' ' && line[i] != '\t') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Checks whether the line starts with the word {@code type}, which marks a CSV header.
+         */
+        private boolean isHeader(int length) {
+            byte[] word = JSON_KEYS[TYPE];
+            int i = 0;
+            while (i < length && (line[i] == ' ' || line[i] == '"')) {
+                i++;
+            }
+            if (length - i < word.length) {
+                return false;
+            }
+            for (int j = 0; j < word.length; j++) {
+                if (Character.toLowerCase(line[i + j]) != word[j]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Splits a CSV line into fields, unquoting quoted fields in place.
+         *
+         * @return an error message, or {@code null} if the line was split
+         */
+        private String splitCsv(int length) {
+            int field = 0;
+            int i = 0;
+            while (true) {
+                if (field == FIELDS) {
+                    return "too many fields";
+                }
+                while (i < length && line[i] == ' ') {
+                    i++;
+                }
+                if (i < length && line[i] == '"') {
+                    int write = ++i;
+                    starts[field] = write;
+                    while (true) {
+                        if (i == length) {
+                            return "unterminated quote";
+                        }
+                        if (line[i] == '"') {
+                            if (i + 1 < length && line[i + 1] == '"') {
+                                line[write++] = '"';
+                                i += 2;
+                                continue;
+                            }
+                            i++;
+                            break;
+                        }
+                        line[write++] = line[i++];
+                    }
+                    ends[field] = write;
+                    while (i < length && line[i] == ' ') {
+                        i++;
+                    }
+                    if (i < length && line[i] != ',') {
+                        return "unexpected character after quoted field";
+                    }
+                } else {
+                    starts[field] = i;
+                    while (i < length && line[i] != ',') {
+                        i++;
+                    }
+                    int end = i;
+                    while (end > starts[field] && line[end - 1] == ' ') {
+                        end--;
+                    }
+                    ends[field] = end;
+                }
+                field++;
+                if (i == length) {
+                    return null;
+                }
+                i++; // skip the comma
+            }
+        }
+
+        /**
+         * Splits a flat JSON object into the known fields, unescaping strings in place.
+         *
+         * @return an error message, or {@code null} if the line was split
+         */
+        private String splitJson(int length) {
+            int i = skipWhitespace(0, length);
+            if (i == length || line[i] != '{') {
+                return "expected '{'";
+            }
+            i = skipWhitespace(i + 1, length);
+            if (i < length && line[i] == '}') {
+                return trailing(i + 1, length);
+            }
+            while (true) {
+                if (i == length || line[i] != '"') {
+                    return "expected a key";
+                }
+                int keyStart = i + 1;
+                i = unescapeString(i + 1, length);
+                if (i < 0) {
+                    return "malformed key";
+                }
+                int keyEnd = stringEnd;
+                int field = fieldOf(keyStart, keyEnd);
+                i = skipWhitespace(i, length);
+                if (i == length || line[i] != ':') {
+                    return "expected ':'";
+                }
+                i = skipWhitespace(i + 1, length);
+                if (i == length) {
+                    return "expected a value";
+                }
+                int valueStart, valueEnd;
+                if (line[i] == '"') {
+                    valueStart = i + 1;
+                    i = unescapeString(i + 1, length);
+                    if (i < 0) {
+                        return "malformed string";
+                    }
+                    valueEnd = stringEnd;
+                } else if (line[i] == '{' || line[i] == '[') {
+                    return "nested values are not supported";
+                } else {
+                    valueStart = i;
+                    while (i < length && line[i] != ',' && line[i] != '}' && line[i] != ' ' && line[i] != '\t') {
+                        i++;
+                    }
+                    valueEnd = i;
+                    if (valueEnd - valueStart == 4 && line[valueStart] == 'n') {
+                        valueEnd = valueStart; // null is treated as a missing value
+                    }
+                }
+                if (field >= 0) {
+                    starts[field] = valueStart;
+                    ends[field] = valueEnd;
+                }
+                i = skipWhitespace(i, length);
+                if (i == length) {
+                    return "expected ',' or '}'";
+                }
+                if (line[i] == '}') {
+                    return trailing(i + 1, length);
+                }
+                if (line[i] != ',') {
+                    return "expected ',' or '}'";
+                }
+                i = skipWhitespace(i + 1, length);
+            }
+        }
+
+        private String trailing(int i, int length) {
+            return skipWhitespace(i, length) == length ? null : "unexpected characters after object";
+        }
+
+        private int skipWhitespace(int i, int length) {
+            while (i < length && (line[i] == ' ' || line[i] == '\t')) {
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * The end of the last string unescaped by {@link #unescapeString(int, int)}.
+         */
+        private int stringEnd;
+
+        /**
+         * Unescapes the JSON string starting at {@code i} in place, writing UTF-8 bytes from {@code i} on and
+         * recording their end in {@link #stringEnd}.
+         *
+         * @return the position after the closing quote, or -1 if the string is malformed
+         */
+        private int unescapeString(int i, int length) {
+            int write = i;
+            while (i < length) {
+                byte b = line[i++];
+                if (b == '"') {
+                    stringEnd = write;
+                    return i;
+                }
+                if (b != '\\') {
+                    line[write++] = b;
+                    continue;
+                }
+                if (i == length) {
+                    return -1;
+                }
+                byte escape = line[i++];
+                switch (escape) {
+                    case '"', '\\', '/' -> line[write++] = escape;
+                    case 'b' -> line[write++] = '\b';
+                    case 'f' -> line[write++] = '\f';
+                    case 'n' -> line[write++] = '\n';
+                    case 'r' -> line[write++] = '\r';
+                    case 't' -> line[write++] = '\t';
+                    case 'u' -> {
+                        int c = hex4(i, length);
+                        if (c < 0) {
+                            return -1;
+                        }
+                        i += 4;
+                        int codePoint = c;
+                        if (Character.isHighSurrogate((char) c) && i + 1 < length
+                                && line[i] == '\\' && line[i + 1] == 'u') {
+                            int low = hex4(i + 2, length);
+                            if (low >= 0 && Character.isLowSurrogate((char) low)) {
+                                codePoint = Character.toCodePoint((char) c, (char) low);
+                                i += 6;
+                            }
+                        }
+                        if (Character.isSurrogate((char) codePoint) && codePoint == c) {
+                            codePoint = '?';
+                        }
+                        write = putUtf8(codePoint, write);
+                    }
+                    default -> {
+                        return -1;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        private int hex4(int i, int length) {
+            if (i + 4 > length) {
+                return -1;
+            }
+            int value = 0;
+            for (int j = i; j < i + 4; j++) {
+                int digit = Character.digit(line[j], 16);
+                if (digit < 0) {
+                    return -1;
+                }
+                value = value * 16 + digit;
+            }
+            return value;
+        }
+
+        /**
+         * Writes a code point as UTF-8; an escape sequence is always at least as long as its encoding.
+         */
+        private int putUtf8(int codePoint, int write) {
+            if (codePoint < 0x80) {
+                line[write++] = (byte) codePoint;
+            } else if (codePoint < 0x800) {
+                line[write++] = (byte) (0xC0 | codePoint >> 6);
+                line[write++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (codePoint < 0x10000) {
+                line[write++] = (byte) (0xE0 | codePoint >> 12);
+                line[write++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                line[write++] = (byte) (0x80 | codePoint & 0x3F);
+            } else {
+                line[write++] = (byte) (0xF0 | codePoint >> 18);
+                line[write++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                line[write++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                line[write++] = (byte) (0x80 | codePoint & 0x3F);
+            }
+            return write;
+        }
+
+        /**
+         * Finds the field named by the JSON key within {@code [start, end)}.
+         *
+         * @return the field, or -1 for an unknown key
+         */
+        private int fieldOf(int start, int end) {
+            for (int field = 0; field < FIELDS; field++) {
+                if (Arrays.equals(line, start, end, JSON_KEYS[field], 0, JSON_KEYS[field].length)) {
+                    return field;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Builds a car from the split fields and adds it to the batch.
+         *
+         * @return an error message, or {@code null} if the car was added
+         */
+        private String emit() {
+            CarType type = parseType();
+            if (type == null) {
+                return "unknown car type";
+            }
+            if (starts[MODEL] < 0) {
+                return "missing model";
+            }
+            double fuelConsumption = type == CarType.ELECTRIC ? 0 : parseNumber(FUEL_CONSUMPTION);
+            double speed = parseNumber(SPEED);
+            double price = parseNumber(PRICE);
+            double kWatt = type == CarType.ELECTRIC ? parseNumber(KWATT) : 0;
+            if (Double.isNaN(fuelConsumption) || Double.isNaN(speed) || Double.isNaN(price) || Double.isNaN(kWatt)) {
+                return "missing or malformed number";
+            }
+            String model = new String(line, starts[MODEL], ends[MODEL] - starts[MODEL], StandardCharsets.UTF_8);
+            Car car;
+            try {
+                car = type.create(model, fuelConsumption, speed, price, kWatt);
+            } catch (CarException e) {
+                return e.getMessage();
+            }
+            batch[batchCount++] = car;
+            if (batchCount == batchSize) {
+                flush();
+            }
+            return null;
+        }
+
+        private void flush() {
+            if (batchCount > 0) {
+                sink.accept(batch, batchCount);
+                imported += batchCount;
+                Arrays.fill(batch, 0, batchCount, null);
+                batchCount = 0;
+            }
+        }
+
+        private CarType parseType() {
+            int start = starts[TYPE];
+            if (start < 0) {
+                return null;
+            }
+            int length = ends[TYPE] - start;
+            for (int t = 0; t < TYPE_NAMES.length; t++) {
+                byte[] name = TYPE_NAMES[t];
+                if (name.length != length) {
+                    continue;
+                }
+                int j = 0;
+                while (j < length && Character.toLowerCase(line[start + j]) == name[j]) {
+                    j++;
+                }
+                if (j == length) {
+                    return TYPES[t];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Parses a decimal number of the specified field. Numbers with at most 15 significant digits and a small
+         * exponent are computed exactly from their digits; others fall back to {@link Double#parseDouble(String)}.
+         *
+         * @return the number, or {@code NaN} if the field is missing or malformed
+         */
+        private double parseNumber(int field) {
+            int start = starts[field];
+            int end = ends[field];
+            if (start < 0 || start == end) {
+                return Double.NaN;
+            }
+            int i = start;
+            boolean negative = false;
+            if (line[i] == '-' || line[i] == '+') {
+                negative = line[i] == '-';
+                i++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int exponent = 0;
+            boolean seenDigit = false;
+            boolean exact = true;
+            for (; i < end && line[i] >= '0' && line[i] <= '9'; i++) {
+                seenDigit = true;
+                if (digits < 15) {
+                    mantissa = mantissa * 10 + (line[i] - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                } else {
+                    exact = false;
+                }
+            }
+            if (i < end && line[i] == '.') {
+                for (i++; i < end && line[i] >= '0' && line[i] <= '9'; i++) {
+                    seenDigit = true;
+                    if (digits < 15) {
+                        mantissa = mantissa * 10 + (line[i] - '0');
+                        if (mantissa != 0) {
+                            digits++;
+                        }
+                        exponent--;
+                    } else {
+                        exact = false;
+                    }
+                }
+            }
+            if (!seenDigit) {
+                return Double.NaN;
+            }
+            if (i < end && (line[i] == 'e' || line[i] == 'E')) {
+                exact = false;
+                int j = i + 1;
+                if (j < end && (line[j] == '-' || line[j] == '+')) {
+                    j++;
+                }
+                if (j == end) {
+                    return Double.NaN;
+                }
+                for (; j < end; j++) {
+                    if (line[j] < '0' || line[j] > '9') {
+                        return Double.NaN;
+                    }
+                }
+                i = end;
+            }
+            if (i != end) {
+                return Double.NaN;
+            }
+            if (exact && -exponent < POWERS_OF_TEN.length) {
+                double value = mantissa / POWERS_OF_TEN[-exponent];
+                return negative ? -value : value;
+            }
+            return Double.parseDouble(new String(line, start, end - start, StandardCharsets.US_ASCII));
+        }
+    }
+}
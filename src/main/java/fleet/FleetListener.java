@@ -0,0 +1,57 @@
+package fleet;
+
+import cars.Car;
+
+import java.util.List;
+
+/**
+ * A listener notified of every change to the cars of a fleet collection, such as a {@link CarsSet} or a
+ * {@link TaxiFleet}. Events are fired synchronously by the thread that made the change, once the change is
+ * complete. Bulk operations fire one bulk event instead of an event per car; the lists passed to bulk events are
+ * read-only and only valid during the call.
+ */
+public interface FleetListener {
+
+    /**
+     * Called after a car has been added.
+     *
+     * @param car the added car
+     */
+    void carAdded(Car car);
+
+    /**
+     * Called after a car has been removed.
+     *
+     * @param car the removed car
+     */
+    void carRemoved(Car car);
+
+    /**
+     * Called after all cars have been removed.
+     */
+    void cleared();
+
+    /**
+     * Called after several cars have been added by one operation. By default, calls {@link #carAdded(Car)} for
+     * each of them.
+     *
+     * @param cars the added cars
+     */
+    default void carsAdded(List<Car> cars) {
+        for (Car car : cars) {
+            carAdded(car);
+        }
+    }
+
+    /**
+     * Called after several cars have been removed by one operation. By default, calls {@link #carRemoved(Car)}
+     * for each of them.
+     *
+     * @param cars the removed cars
+     */
+    default void carsRemoved(List<Car> cars) {
+        for (Car car : cars) {
+            carRemoved(car);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package fleet;
+
+import cars.Car;
+import cars.CarAttribute;
+import customExceptions.CarException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The {@code fleet.FleetQuery} class is a query over a taxi fleet made of inclusive range conditions on any
+ * numeric attributes of the cars, e.g. speed 120-180, price up to 30000 and fuel consumption up to 8.
+ * <p>
+ * Before running, the query estimates the selectivity of every condition by counting its matches in the
+ * sorted index of its attribute, which takes O(log N). The most selective condition drives the lookup: its
+ * index yields the candidates and the other conditions are checked on them only. When even the most selective
+ * condition matches a large share of the fleet, a sequential scan of all cars is used instead, since visiting
+ * candidates in index order jumps around memory.
+ */
+public class FleetQuery {
+
+    /**
+     * The index drives the lookup only when it yields fewer candidates than the fleet size divided by this value.
+     */
+    private static final int INDEX_SCAN_PENALTY = 4;
+
+    private static final int ATTRIBUTES = CarAttribute.values().length;
+
+    private final TaxiFleet fleet;
+    private final double[] mins = new double[ATTRIBUTES];
+    private final double[] maxs = new double[ATTRIBUTES];
+    private final boolean[] constrained = new boolean[ATTRIBUTES];
+
+    /**
+     * Constructs a query without conditions over the specified fleet.
+     *
+     * @param fleet the fleet to query
+     */
+    FleetQuery(TaxiFleet fleet) {
+        this.fleet = fleet;
+    }
+
+    /**
+     * Adds the condition that the specified attribute lies within {@code [min, max]}. Several conditions on the
+     * same attribute are intersected.
+     *
+     * @param attribute the attribute to constrain
+     * @param min       the lower bound, inclusive
+     * @param max       the upper bound, inclusive
+     * @return this query
+     */
+    public FleetQuery where(CarAttribute attribute, double min, double max) {
+        if (attribute == null || Double.isNaN(min) || Double.isNaN(max)) {
+            throw new CarException("Invalid query condition: attribute and bounds must be defined.");
+        }
+        int i = attribute.ordinal();
+        if (constrained[i]) {
+            mins[i] = Math.max(mins[i], min);
+            maxs[i] = Math.min(maxs[i], max);
+        } else {
+            constrained[i] = true;
+            mins[i] = min;
+            maxs[i] = max;
+        }
+        return this;
+    }
+
+    /**
+     * Adds the condition that the specified attribute is at most {@code max}.
+     *
+     * @param attribute the attribute to constrain
+     * @param max       the upper bound, inclusive
+     * @return this query
+     */
+    public FleetQuery atMost(CarAttribute attribute, double max) {
+        return where(attribute, Double.NEGATIVE_INFINITY, max);
+    }
+
+    /**
+     * Adds the condition that the specified attribute is at least {@code min}.
+     *
+     * @param attribute the attribute to constrain
+     * @param min       the lower bound, inclusive
+     * @return this query
+     */
+    public FleetQuery atLeast(CarAttribute attribute, double min) {
+        return where(attribute, min, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Lists the cars matching all conditions.
+     *
+     * @return the matching cars in fleet order
+     */
+    public List<Car> list() {
+        int[] positions = matchingPositions();
+        List<Car> result = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            result.add(fleet.carAt(position));
+        }
+        return result;
+    }
+
+    /**
+     * Counts the cars matching all conditions.
+     *
+     * @return the number of matching cars
+     */
+    public int count() {
+        CarAttribute single = singleCondition();
+        if (single != null) {
+            return fleet.index(single).count(mins[single.ordinal()], maxs[single.ordinal()]);
+        }
+        return matchingPositions().length;
+    }
+
+    /**
+     * Finds the first car of the fleet matching all conditions.
+     *
+     * @return the first matching car in fleet order, or {@code null} if no car matches
+     */
+    public Car findFirst() {
+        CarAttribute single = singleCondition();
+        int position;
+        if (single != null) {
+            position = fleet.index(single).firstPosition(mins[single.ordinal()], maxs[single.ordinal()]);
+        } else {
+            int[] positions = matchingPositions();
+            position = positions.length == 0 ? -1 : positions[0];
+        }
+        return position < 0 ? null : fleet.carAt(position);
+    }
+
+    /**
+     * Describes how the query would be executed, for diagnostics.
+     *
+     * @return a description of the chosen plan
+     */
+    public String explain() {
+        CarAttribute driver = chooseDriver();
+        if (driver == null) {
+            return "full scan of " + fleet.size() + " cars";
+        }
+        int i = driver.ordinal();
+        return "index range on " + driver + " with " + fleet.index(driver).count(mins[i], maxs[i]) + " candidates";
+    }
+
+    /**
+     * Returns the only constrained attribute, if the query has exactly one.
+     */
+    private CarAttribute singleCondition() {
+        CarAttribute single = null;
+        for (CarAttribute attribute : CarAttribute.values()) {
+            if (constrained[attribute.ordinal()]) {
+                if (single != null) {
+                    return null;
+                }
+                single = attribute;
+            }
+        }
+        return single;
+    }
+
+    /**
+     * Picks the most selective condition, or {@code null} when a full scan is expected to be cheaper.
+     */
+    private CarAttribute chooseDriver() {
+        CarAttribute driver = null;
+        int best = Integer.MAX_VALUE;
+        for (CarAttribute attribute : CarAttribute.values()) {
+            int i = attribute.ordinal();
+            if (constrained[i]) {
+                int estimate = fleet.index(attribute).count(mins[i], maxs[i]);
+                if (estimate < best) {
+                    best = estimate;
+                    driver = attribute;
+                }
+            }
+        }
+        if (driver != null && (long) best * INDEX_SCAN_PENALTY >= fleet.size()) {
+            return null;
+        }
+        return driver;
+    }
+
+    /**
+     * Checks whether the specified car satisfies every condition.
+     */
+    private boolean matches(Car car) {
+        for (CarAttribute attribute : CarAttribute.values()) {
+            int i = attribute.ordinal();
+            if (constrained[i]) {
+                double value = attribute.valueOf(car);
+                if (!(value >= mins[i] && value <= maxs[i])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Runs the query.
+     *
+     * @return the positions of the matching cars in ascending order
+     */
+    private int[] matchingPositions() {
+        CarAttribute driver = chooseDriver();
+        int[] result;
+        int found = 0;
+        if (driver == null) {
+            result = new int[fleet.size()];
+            for (int position = 0; position < fleet.size(); position++) {
+                if (matches(fleet.carAt(position))) {
+                    result[found++] = position;
+                }
+            }
+        } else {
+            int i = driver.ordinal();
+            result = fleet.index(driver).positions(mins[i], maxs[i], 0, Integer.MAX_VALUE);
+            for (int position : result) {
+                if (matches(fleet.carAt(position))) {
+                    result[found++] = position;
+                }
+            }
+            Arrays.sort(result, 0, found);
+        }
+        return Arrays.copyOf(result, found);
+    }
+}
@@ -0,0 +1,410 @@
+package fleet;
+
+import cars.Car;
+import cars.CarAttribute;
+import customExceptions.CarException;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The {@code fleet.FleetQueryService} class runs queries over a {@link VersionedFleet} asynchronously, for request
+ * handlers serving many concurrent clients. Every query reads one consistent {@link FleetVersion}, so queries
+ * never wait for writers.
+ * <p>
+ * Queries run on virtual threads when the JVM provides them, and on a pool of one platform thread per processor
+ * otherwise. Identical queries submitted while one of them is running over the same version are coalesced: they
+ * share a single execution. Versions are told apart by identity, not by their number, since an update may publish
+ * an older version again. Speed range lookups are batched, so that all lookups waiting at the same time over the
+ * same version are answered by one pass over that version. At most a fixed number of queries run at once; a query that cannot start
+ * within the admission timeout is rejected with a {@link RejectedExecutionException} instead of queueing without
+ * bound.
+ */
+public class FleetQueryService implements AutoCloseable {
+    private static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+    private static final Duration DEFAULT_ADMISSION_TIMEOUT = Duration.ofSeconds(1);
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private final VersionedFleet fleet;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final Semaphore permits;
+    private final long admissionTimeoutNanos;
+
+    /**
+     * Queries in progress by key, so that identical queries can join them.
+     */
+    private final ConcurrentHashMap<QueryKey, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Speed range lookups waiting for the next batch, and whether a batch is scheduled or running.
+     */
+    private final Queue<RangeLookup> pendingLookups = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final LongAdder executedQueries = new LongAdder();
+    private final LongAdder coalescedQueries = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    /**
+     * Constructs a query service over the specified fleet with at most 1024 queries in flight and an admission
+     * timeout of one second.
+     *
+     * @param fleet the fleet to query
+     */
+    public FleetQueryService(VersionedFleet fleet) {
+        this(fleet, DEFAULT_MAX_IN_FLIGHT, DEFAULT_ADMISSION_TIMEOUT);
+    }
+
+    /**
+     * Constructs a query service over the specified fleet.
+     *
+     * @param fleet            the fleet to query
+     * @param maxInFlight      the maximum number of queries running at once
+     * @param admissionTimeout the maximum time a submitting thread waits for a query to start
+     */
+    public FleetQueryService(VersionedFleet fleet, int maxInFlight, Duration admissionTimeout) {
+        if (fleet == null) {
+            throw new CarException("Invalid fleet: must not be null.");
+        }
+        if (maxInFlight <= 0) {
+            throw new CarException("Invalid query limit: maxInFlight must be positive.");
+        }
+        if (admissionTimeout == null || admissionTimeout.isNegative()) {
+            throw new CarException("Invalid admission timeout: must be non-negative.");
+        }
+        this.fleet = fleet;
+        this.permits = new Semaphore(maxInFlight);
+        this.admissionTimeoutNanos = admissionTimeout.toNanos();
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newPlatformThreadExecutor();
+    }
+
+    /**
+     * Creates an executor starting a virtual thread per task, looked up reflectively so that the service also
+     * runs on JVMs where virtual threads are missing or a disabled preview feature.
+     *
+     * @return the executor, or {@code null} if virtual threads are not available
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newPlatformThreadExecutor() {
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), task -> {
+            Thread thread = new Thread(task, "fleet-query");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Checks whether queries run on virtual threads.
+     *
+     * @return true if queries run on virtual threads, false if they run on platform threads
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Finds a car within the specified speed range in the current version of the fleet. The lookup joins the
+     * next batch of lookups, which are answered by one pass over each version they read.
+     *
+     * @param minSpeed the minimum speed of the desired car
+     * @param maxSpeed the maximum speed of the desired car
+     * @return a future of the first car within the speed range, or of {@code null} if no such car is found
+     */
+    public CompletableFuture<Car> findCarBySpeedRange(double minSpeed, double maxSpeed) {
+        FleetVersion version = fleet.current();
+        QueryKey key = new QueryKey("findCarBySpeedRange", version, List.of(minSpeed, maxSpeed));
+        return coalesce(key, result -> {
+            pendingLookups.add(new RangeLookup(version, minSpeed, maxSpeed, result));
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drainLookups);
+                } catch (RejectedExecutionException e) {
+                    // The service is closed: nothing will drain the waiting lookups any more
+                    RangeLookup lookup;
+                    while ((lookup = pendingLookups.poll()) != null) {
+                        lookup.result.completeExceptionally(e);
+                    }
+                    draining.set(false);
+                }
+            }
+        });
+    }
+
+    /**
+     * Calculates the total cost of the current version of the fleet.
+     *
+     * @return a future of the total cost in dollars
+     */
+    public CompletableFuture<Double> calculateFleetCost() {
+        FleetVersion version = fleet.current();
+        QueryKey key = new QueryKey("calculateFleetCost", version, List.of());
+        return coalesce(key, result -> run(result, version::calculateFleetCost));
+    }
+
+    /**
+     * Lists the cars of the current version of the fleet in ascending order of the specified attributes, without
+     * changing the fleet.
+     *
+     * @param attributes the attributes to sort by, most significant first
+     * @return a future of the sorted cars
+     */
+    public CompletableFuture<List<Car>> sortedBy(CarAttribute... attributes) {
+        FleetVersion version = fleet.current();
+        CarAttribute[] copy = attributes.clone();
+        QueryKey key = new QueryKey("sortedBy", version, Arrays.asList(copy));
+        return coalesce(key, result -> run(result, () -> version.sortedBy(copy).asList()));
+    }
+
+    /**
+     * Runs the specified query over the current version of the fleet. Custom queries are subject to the limit
+     * of queries in flight but are never coalesced.
+     *
+     * @param query the query to run
+     * @param <T>   the type of the result
+     * @return a future of the result of the query
+     */
+    public <T> CompletableFuture<T> submit(Function<FleetVersion, T> query) {
+        Objects.requireNonNull(query);
+        FleetVersion version = fleet.current();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (admit(result)) {
+            run(result, () -> query.apply(version));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of queries executed, not counting coalesced ones.
+     *
+     * @return the number of executed queries
+     */
+    public long getExecutedQueries() {
+        return executedQueries.sum();
+    }
+
+    /**
+     * Returns the number of queries that joined an identical query instead of being executed.
+     *
+     * @return the number of coalesced queries
+     */
+    public long getCoalescedQueries() {
+        return coalescedQueries.sum();
+    }
+
+    /**
+     * Returns the number of passes over the fleet made to answer batched speed range lookups.
+     *
+     * @return the number of batches
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * Stops accepting queries. Queries already started run to completion.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Returns a future of the query with the specified key: a view of the identical query in progress if there
+     * is one, or else of a new query started by the specified action once admitted.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> coalesce(QueryKey key, Consumer<CompletableFuture<T>> start) {
+        CompletableFuture<T> created = new CompletableFuture<>();
+        CompletableFuture<?> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalescedQueries.increment();
+            // A copy, so that a caller completing or cancelling its future does not affect the others
+            return ((CompletableFuture<T>) existing).copy();
+        }
+        created.whenComplete((value, error) -> inFlight.remove(key, created));
+        if (admit(created)) {
+            start.accept(created);
+        }
+        return created.copy();
+    }
+
+    /**
+     * Waits for a free slot for the specified query, and releases it once the query completes.
+     *
+     * @return true if the query may start, false if it has been rejected
+     */
+    private boolean admit(CompletableFuture<?> result) {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(admissionTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            result.completeExceptionally(new RejectedExecutionException(
+                    "Query rejected: " + permits.availablePermits() + " free slots after the admission timeout."));
+            return false;
+        }
+        result.whenComplete((value, error) -> permits.release());
+        return true;
+    }
+
+    private <T> void run(CompletableFuture<T> result, Supplier<T> query) {
+        try {
+            executor.execute(() -> {
+                try {
+                    executedQueries.increment();
+                    result.complete(query.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Answers the waiting speed range lookups in batches until none are left.
+     */
+    private void drainLookups() {
+        while (true) {
+            List<RangeLookup> batch = new ArrayList<>();
+            RangeLookup lookup;
+            while (batch.size() < MAX_BATCH_SIZE && (lookup = pendingLookups.poll()) != null) {
+                batch.add(lookup);
+            }
+            if (!batch.isEmpty()) {
+                runBatch(batch);
+                continue;
+            }
+            draining.set(false);
+            // A lookup added after the last poll found draining set, so it is ours to pick up
+            if (pendingLookups.isEmpty() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Answers a batch of speed range lookups with one pass over every version the lookups of the batch read.
+     */
+    private void runBatch(List<RangeLookup> batch) {
+        Map<FleetVersion, List<RangeLookup>> byVersion = new IdentityHashMap<>();
+        for (RangeLookup lookup : batch) {
+            byVersion.computeIfAbsent(lookup.version, version -> new ArrayList<>()).add(lookup);
+        }
+        for (Map.Entry<FleetVersion, List<RangeLookup>> group : byVersion.entrySet()) {
+            scan(group.getKey(), group.getValue());
+        }
+    }
+
+    /**
+     * Answers speed range lookups over the same version with one pass over it, which stops as soon as every
+     * lookup has found its car.
+     */
+    private void scan(FleetVersion version, List<RangeLookup> lookups) {
+        batches.increment();
+        executedQueries.add(lookups.size());
+        try {
+            RangeLookup[] open = lookups.toArray(new RangeLookup[0]);
+            int openCount = open.length;
+            for (int i = 0; i < version.size() && openCount > 0; i++) {
+                Car car = version.get(i);
+                double speed = car.getSpeed();
+                for (int j = 0; j < openCount; ) {
+                    if (speed >= open[j].minSpeed && speed <= open[j].maxSpeed) {
+                        open[j].result.complete(car);
+                        open[j] = open[--openCount];
+                    } else {
+                        j++;
+                    }
+                }
+            }
+            for (int j = 0; j < openCount; j++) {
+                open[j].result.complete(null);
+            }
+        } catch (Throwable e) {
+            for (RangeLookup lookup : lookups) {
+                lookup.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Identifies a query by its name, the version of the fleet it reads and its arguments. Versions are compared
+     * by identity: two versions with the same number may hold different cars.
+     */
+    private static final class QueryKey {
+        private final String name;
+        private final FleetVersion version;
+        private final List<?> arguments;
+
+        QueryKey(String name, FleetVersion version, List<?> arguments) {
+            this.name = name;
+            this.version = version;
+            this.arguments = arguments;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof QueryKey other)) return false;
+            return version == other.version && name.equals(other.name) && arguments.equals(other.arguments);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * name.hashCode() + System.identityHashCode(version)) + arguments.hashCode();
+        }
+    }
+
+    /**
+     * A speed range lookup waiting for its batch.
+     */
+    private static final class RangeLookup {
+        final FleetVersion version;
+        final double minSpeed;
+        final double maxSpeed;
+        final CompletableFuture<Car> result;
+
+        RangeLookup(FleetVersion version, double minSpeed, double maxSpeed, CompletableFuture<Car> result) {
+            this.version = version;
+            this.minSpeed = minSpeed;
+            this.maxSpeed = maxSpeed;
+            this.result = result;
+        }
+    }
+}
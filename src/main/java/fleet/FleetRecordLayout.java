@@ -0,0 +1,49 @@
+package fleet;
+
+import cars.CarAttribute;
+
+/**
+ * The fixed-width binary layout of one car, shared by every store that keeps cars outside of {@code Car}
+ * objects. Fields are little-endian and doubles are 8-byte aligned within the 40-byte record:
+ * <pre>
+ * offset  size  field
+ *      0     1  type tag ({@code CarType} ordinal)
+ *      1     3  padding
+ *      4     4  model id
+ *      8     8  fuel consumption, liters per 100 km
+ *     16     8  speed, km/h
+ *     24     8  price, dollars
+ *     32     8  power consumption, kilowatts per 100 km
+ * </pre>
+ */
+final class FleetRecordLayout {
+    static final int TYPE = 0;
+    static final int MODEL = 4;
+    static final int FUEL_CONSUMPTION = 8;
+    static final int SPEED = 16;
+    static final int PRICE = 24;
+    static final int KWATT = 32;
+    static final int RECORD_SIZE = 40;
+
+    private FleetRecordLayout() {
+    }
+
+    /**
+     * Gets the offset of the field holding the specified attribute.
+     *
+     * @param attribute the attribute
+     * @return the offset of the field within a record
+     */
+    static int offsetOf(CarAttribute attribute) {
+        switch (attribute) {
+            case FUEL_CONSUMPTION:
+                return FUEL_CONSUMPTION;
+            case SPEED:
+                return SPEED;
+            case PRICE:
+                return PRICE;
+            default:
+                return KWATT;
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package fleet;
+
+import cars.Car;
+import cars.CarType;
+import customExceptions.CarException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The {@code fleet.FleetSnapshot} class is a compact binary snapshot of a fleet, written through a
+ * {@link FileChannel} and read back through memory-mapped buffers. Opening a snapshot only maps the file and
+ * reads the model dictionary, so it is nearly instant regardless of the fleet size, and queries run directly
+ * off the mapped pages.
+ * <p>
+ * The file starts with a 24-byte little-endian header: magic {@code "FLT1"}, format version, car count,
+ * model count and the offset of the first record. The model dictionary follows as length-prefixed UTF-8
+ * names, padded to a multiple of 8 bytes, and then one fixed-width record per car as described by
+ * {@link FleetRecordLayout}.
+ */
+public class FleetSnapshot {
+    private static final int MAGIC = 0x464C5431; // "FLT1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+    private static final int TYPE_COUNT = CarType.values().length;
+
+    /**
+     * Records are mapped in chunks, since a single mapping cannot exceed 2 GB.
+     */
+    private static final int CHUNK_SHIFT = 24;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    private final ByteBuffer[] chunks;
+    private final String[] models;
+    private final int size;
+
+    private FleetSnapshot(ByteBuffer[] chunks, String[] models, int size) {
+        this.chunks = chunks;
+        this.models = models;
+        this.size = size;
+    }
+
+    /**
+     * Writes a snapshot of the specified taxi fleet.
+     *
+     * @param fleet the fleet to write
+     * @param path  the file to write, replaced if it exists
+     */
+    public static void write(TaxiFleet fleet, Path path) {
+        write(new ColumnarFleet(fleet), path);
+    }
+
+    /**
+     * Writes a snapshot of the specified columnar fleet. The snapshot is written to a temporary file in the same
+     * directory, forced to disk and then atomically moved over {@code path}, so a process that has the previous
+     * snapshot open keeps reading its mapped pages, and a crash during the write leaves the previous snapshot intact.
+     *
+     * @param fleet the fleet to write
+     * @param path  the file to write, replaced if it exists
+     */
+    public static void write(ColumnarFleet fleet, Path path) {
+        byte[][] names = new byte[fleet.modelCount()][];
+        long dictionarySize = 0;
+        for (int id = 0; id < names.length; id++) {
+            names[id] = fleet.modelName(id).getBytes(StandardCharsets.UTF_8);
+            dictionarySize += Integer.BYTES + names[id].length;
+        }
+        long recordsOffset = align(HEADER_SIZE + dictionarySize);
+
+        Path directory = path.toAbsolutePath().getParent();
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            writeRecords(fleet, temporary, names, dictionarySize, recordsOffset);
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            temporary = null;
+        } catch (IOException e) {
+            throw new CarException("Failed to write fleet snapshot " + path + ".", e);
+        } finally {
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                    // The write has failed already; a leftover temporary file is harmless
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the header, the model dictionary and the records to the specified new file and forces them to disk.
+     */
+    private static void writeRecords(ColumnarFleet fleet, Path file, byte[][] names, long dictionarySize,
+                                     long recordsOffset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(fleet.size()).putInt(names.length).putLong(recordsOffset);
+
+            for (byte[] name : names) {
+                ensureRemaining(channel, buffer, Integer.BYTES);
+                buffer.putInt(name.length);
+                if (name.length > buffer.remaining()) {
+                    drain(channel, buffer);
+                    writeFully(channel, ByteBuffer.wrap(name));
+                } else {
+                    buffer.put(name);
+                }
+            }
+            ensureRemaining(channel, buffer, Long.BYTES);
+            buffer.put(new byte[(int) (recordsOffset - HEADER_SIZE - dictionarySize)]);
+
+            for (int i = 0; i < fleet.size(); i++) {
+                ensureRemaining(channel, buffer, FleetRecordLayout.RECORD_SIZE);
+                int base = buffer.position();
+                buffer.put(base + FleetRecordLayout.TYPE, (byte) fleet.getType(i).ordinal())
+                        .putInt(base + FleetRecordLayout.MODEL, fleet.modelIdAt(i))
+                        .putDouble(base + FleetRecordLayout.FUEL_CONSUMPTION, fleet.getFuelConsumption(i))
+                        .putDouble(base + FleetRecordLayout.SPEED, fleet.getSpeed(i))
+                        .putDouble(base + FleetRecordLayout.PRICE, fleet.getPrice(i))
+                        .putDouble(base + FleetRecordLayout.KWATT, fleet.getKWatt(i));
+                buffer.position(base + FleetRecordLayout.RECORD_SIZE);
+            }
+            drain(channel, buffer);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Rounds the specified offset up to a multiple of 8.
+     */
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    /**
+     * Makes room for the specified number of bytes in the buffer, writing its content out if needed.
+     */
+    private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain(channel, buffer);
+        }
+    }
+
+    /**
+     * Writes the content of the buffer out and clears it.
+     */
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Writes all remaining bytes of the buffer.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Opens a snapshot by mapping its file into memory.
+     *
+     * @param path the snapshot file
+     * @return the opened snapshot
+     */
+    public static FleetSnapshot open(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new CarException("Invalid fleet snapshot " + path + ": file is truncated.");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new CarException("Invalid fleet snapshot " + path + ": unknown format.");
+            }
+            int size = header.getInt(8);
+            int modelCount = header.getInt(12);
+            long recordsOffset = header.getLong(16);
+            if (size < 0 || modelCount < 0 || recordsOffset < HEADER_SIZE
+                    || recordsOffset + (long) size * FleetRecordLayout.RECORD_SIZE > fileSize) {
+                throw new CarException("Invalid fleet snapshot " + path + ": file is truncated.");
+            }
+
+            ByteBuffer dictionary = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, recordsOffset - HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            String[] models = new String[modelCount];
+            for (int id = 0; id < modelCount; id++) {
+                int length = dictionary.remaining() < Integer.BYTES ? -1 : dictionary.getInt();
+                if (length < 0 || length > dictionary.remaining()) {
+                    throw new CarException("Invalid fleet snapshot " + path + ": corrupt model dictionary.");
+                }
+                byte[] name = new byte[length];
+                dictionary.get(name);
+                models[id] = new String(name, StandardCharsets.UTF_8);
+            }
+
+            int chunkCount = (int) (((long) size + CHUNK_MASK) >>> CHUNK_SHIFT);
+            ByteBuffer[] chunks = new ByteBuffer[chunkCount];
+            for (int c = 0; c < chunkCount; c++) {
+                long first = (long) c << CHUNK_SHIFT;
+                long records = Math.min(size - first, 1L << CHUNK_SHIFT);
+                chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY,
+                                recordsOffset + first * FleetRecordLayout.RECORD_SIZE,
+                                records * FleetRecordLayout.RECORD_SIZE)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return new FleetSnapshot(chunks, models, size);
+        } catch (IOException e) {
+            throw new CarException("Failed to read fleet snapshot " + path + ".", e);
+        }
+    }
+
+    /**
+     * Returns the number of cars in the snapshot.
+     *
+     * @return the number of cars in the snapshot
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the buffer holding the record of the specified car.
+     */
+    private ByteBuffer chunk(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return chunks[index >>> CHUNK_SHIFT];
+    }
+
+    /**
+     * Gets the offset of the record of the specified car within its chunk.
+     */
+    private static int offset(int index) {
+        return (index & CHUNK_MASK) * FleetRecordLayout.RECORD_SIZE;
+    }
+
+    /**
+     * Gets the type of the specified car.
+     *
+     * @param index the position of the car
+     * @return the type of the car
+     */
+    public CarType getType(int index) {
+        int ordinal = chunk(index).get(offset(index) + FleetRecordLayout.TYPE);
+        if (ordinal < 0 || ordinal >= TYPE_COUNT) {
+            throw new CarException("Invalid fleet snapshot: corrupt type of car " + index + ".");
+        }
+        return CarType.ofOrdinal(ordinal);
+    }
+
+    /**
+     * Gets the model of the specified car.
+     *
+     * @param index the position of the car
+     * @return the model of the car
+     */
+    public String getModel(int index) {
+        int id = chunk(index).getInt(offset(index) + FleetRecordLayout.MODEL);
+        if (id < 0 || id >= models.length) {
+            throw new CarException("Invalid fleet snapshot: corrupt model of car " + index + ".");
+        }
+        return models[id];
+    }
+
+    /**
+     * Gets the fuel consumption of the specified car in liters per 100 km.
+     *
+     * @param index the position of the car
+     * @return the fuel consumption of the car
+     */
+    public double getFuelConsumption(int index) {
+        return chunk(index).getDouble(offset(index) + FleetRecordLayout.FUEL_CONSUMPTION);
+    }
+
+    /**
+     * Gets the speed of the specified car in km/h.
+     *
+     * @param index the position of the car
+     * @return the speed of the car
+     */
+    public double getSpeed(int index) {
+        return chunk(index).getDouble(offset(index) + FleetRecordLayout.SPEED);
+    }
+
+    /**
+     * Gets the price of the specified car in dollars.
+     *
+     * @param index the position of the car
+     * @return the price of the car
+     */
+    public double getPrice(int index) {
+        return chunk(index).getDouble(offset(index) + FleetRecordLayout.PRICE);
+    }
+
+    /**
+     * Gets the power consumption of the specified car in kilowatts per 100 km.
+     *
+     * @param index the position of the car
+     * @return the power consumption of an electric car, or 0 for any other car
+     */
+    public double getKWatt(int index) {
+        return chunk(index).getDouble(offset(index) + FleetRecordLayout.KWATT);
+    }
+
+    /**
+     * Creates a {@code Car} object for the specified car.
+     *
+     * @param index the position of the car
+     * @return a new car with the attributes stored in the snapshot
+     */
+    public Car getCar(int index) {
+        return getType(index).create(getModel(index), getFuelConsumption(index), getSpeed(index), getPrice(index),
+                getKWatt(index));
+    }
+
+    /**
+     * Calculates the total cost of the fleet directly from the mapped records.
+     *
+     * @return the total cost of the fleet in dollars
+     */
+    public double calculateFleetCost() {
+        double sum = 0;
+        for (ByteBuffer chunk : chunks) {
+            for (int offset = FleetRecordLayout.PRICE; offset < chunk.limit(); offset += FleetRecordLayout.RECORD_SIZE) {
+                sum += chunk.getDouble(offset);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Finds the first car whose speed lies within the specified range, directly from the mapped records.
+     *
+     * @param minSpeed the minimum speed of the desired car
+     * @param maxSpeed the maximum speed of the desired car
+     * @return the position of the first car within the speed range, or -1 if no such car is found
+     */
+    public int indexOfSpeedRange(double minSpeed, double maxSpeed) {
+        for (int c = 0; c < chunks.length; c++) {
+            ByteBuffer chunk = chunks[c];
+            for (int offset = FleetRecordLayout.SPEED; offset < chunk.limit(); offset += FleetRecordLayout.RECORD_SIZE) {
+                double speed = chunk.getDouble(offset);
+                if (speed >= minSpeed && speed <= maxSpeed) {
+                    return (c << CHUNK_SHIFT) + offset / FleetRecordLayout.RECORD_SIZE;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds a car within the specified speed range.
+     *
+     * @param minSpeed the minimum speed of the desired car
+     * @param maxSpeed the maximum speed of the desired car
+     * @return a car within the specified speed range, or {@code null} if no such car is found
+     */
+    public Car findCarBySpeedRange(double minSpeed, double maxSpeed) {
+        int index = indexOfSpeedRange(minSpeed, maxSpeed);
+        return index < 0 ? null : getCar(index);
+    }
+
+    /**
+     * Loads the whole snapshot into a columnar fleet on the heap.
+     *
+     * @return a new columnar fleet holding the cars of the snapshot in the same order
+     */
+    public ColumnarFleet toColumnarFleet() {
+        ColumnarFleet fleet = new ColumnarFleet(size);
+        for (int i = 0; i < size; i++) {
+            fleet.addRow(getType(i), getModel(i), getFuelConsumption(i), getSpeed(i), getPrice(i), getKWatt(i));
+        }
+        return fleet;
+    }
+}
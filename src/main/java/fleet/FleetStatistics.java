@@ -0,0 +1,115 @@
+package fleet;
+
+import cars.Car;
+import cars.CarAttribute;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The {@code fleet.FleetStatistics} class computes descriptive statistics of every numeric attribute of the
+ * cars in a taxi fleet in a single pass. The fleet is split into fixed ranges that are summarized in parallel
+ * on a fork-join pool and merged pairwise. Since the ranges and the merge order only depend on the fleet size,
+ * the results are the same on every run, whatever the number of threads.
+ */
+public class FleetStatistics {
+
+    /**
+     * Ranges of at most this many cars are summarized sequentially.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 8192;
+
+    private static final CarAttribute[] ATTRIBUTES = CarAttribute.values();
+
+    private final Map<CarAttribute, AttributeStatistics> statistics;
+
+    private FleetStatistics(AttributeStatistics[] statistics) {
+        this.statistics = new EnumMap<>(CarAttribute.class);
+        for (CarAttribute attribute : ATTRIBUTES) {
+            this.statistics.put(attribute, statistics[attribute.ordinal()]);
+        }
+    }
+
+    /**
+     * Computes the statistics of the specified fleet on the common fork-join pool.
+     *
+     * @param fleet the fleet to summarize
+     * @return the statistics of the fleet
+     */
+    public static FleetStatistics of(TaxiFleet fleet) {
+        return of(fleet, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the statistics of the specified fleet on the specified fork-join pool.
+     *
+     * @param fleet the fleet to summarize
+     * @param pool  the pool to run on
+     * @return the statistics of the fleet
+     */
+    public static FleetStatistics of(TaxiFleet fleet, ForkJoinPool pool) {
+        return new FleetStatistics(pool.invoke(new SummaryTask(fleet, 0, fleet.size())));
+    }
+
+    /**
+     * Gets the statistics of the specified attribute.
+     *
+     * @param attribute the attribute
+     * @return the statistics of the attribute over the fleet
+     */
+    public AttributeStatistics get(CarAttribute attribute) {
+        return statistics.get(attribute);
+    }
+
+    /**
+     * Summarizes a range of fleet positions, splitting it in halves while it is large.
+     */
+    private static class SummaryTask extends RecursiveTask<AttributeStatistics[]> {
+        private final TaxiFleet fleet;
+        private final int from;
+        private final int to;
+
+        SummaryTask(TaxiFleet fleet, int from, int to) {
+            this.fleet = fleet;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected AttributeStatistics[] compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                return summarize();
+            }
+            int mid = (from + to) >>> 1;
+            SummaryTask left = new SummaryTask(fleet, from, mid);
+            left.fork();
+            AttributeStatistics[] right = new SummaryTask(fleet, mid, to).compute();
+            AttributeStatistics[] result = left.join();
+            for (int i = 0; i < result.length; i++) {
+                result[i].merge(right[i]);
+            }
+            return result;
+        }
+
+        /**
+         * Reads every attribute of every car in the range once and summarizes each attribute.
+         */
+        private AttributeStatistics[] summarize() {
+            int length = to - from;
+            double[][] columns = new double[ATTRIBUTES.length][length];
+            for (int i = 0; i < length; i++) {
+                Car car = fleet.carAt(from + i);
+                for (CarAttribute attribute : ATTRIBUTES) {
+                    columns[attribute.ordinal()][i] = attribute.valueOf(car);
+                }
+            }
+            AttributeStatistics[] result = new AttributeStatistics[ATTRIBUTES.length];
+            for (int a = 0; a < ATTRIBUTES.length; a++) {
+                result[a] = new AttributeStatistics(columns[a], length);
+            }
+            return result;
+        }
+    }
+}
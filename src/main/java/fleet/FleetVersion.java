@@ -0,0 +1,206 @@
+package fleet;
+
+import cars.Car;
+import cars.CarAttribute;
+import customExceptions.CarException;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The {@code fleet.FleetVersion} class is one immutable version of a {@link VersionedFleet}. It never changes
+ * once created, so any number of threads can read it without locks while newer versions are published. The
+ * {@code with...} methods return a new version sharing most of its storage with this one: appending or
+ * replacing a car copies O(log N) small nodes instead of the whole fleet.
+ */
+public final class FleetVersion {
+    private static final FleetVersion EMPTY = new FleetVersion(0, CarVector.EMPTY);
+
+    private final long version;
+    private final CarVector cars;
+
+    private FleetVersion(long version, CarVector cars) {
+        this.version = version;
+        this.cars = cars;
+    }
+
+    /**
+     * Gets the initial version of an empty fleet.
+     *
+     * @return the empty version
+     */
+    static FleetVersion empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates the initial version of a fleet holding the specified cars.
+     *
+     * @param cars the cars in fleet order
+     * @return the version
+     */
+    static FleetVersion of(Car[] cars) {
+        for (Car car : cars) {
+            checkCar(car);
+        }
+        return new FleetVersion(0, CarVector.of(cars, cars.length));
+    }
+
+    private static void checkCar(Car car) {
+        if (car == null) {
+            throw new CarException("Invalid car: must not be null.");
+        }
+    }
+
+    /**
+     * Gets the number of this version; every change adds one to the number of the version it starts from. Numbers
+     * do not identify versions: two changes of the same version, or an update publishing an earlier version
+     * again, make the numbers repeat.
+     *
+     * @return the version number, 0 for the initial version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the number of cars in this version.
+     *
+     * @return the number of cars
+     */
+    public int size() {
+        return cars.size();
+    }
+
+    /**
+     * Gets the car at the specified position.
+     *
+     * @param position the position of the car
+     * @return the car at the specified position
+     */
+    public Car get(int position) {
+        return cars.get(position);
+    }
+
+    /**
+     * Returns an unmodifiable view of the cars of this version.
+     *
+     * @return the cars in fleet order
+     */
+    public List<Car> asList() {
+        return new CarsView();
+    }
+
+    /**
+     * Copies the cars of this version into a new array.
+     *
+     * @return the cars in fleet order
+     */
+    public Car[] toArray() {
+        return cars.toArray();
+    }
+
+    /**
+     * Calculates the total cost of the cars of this version.
+     *
+     * @return the total cost in dollars
+     */
+    public double calculateFleetCost() {
+        double sum = 0;
+        for (int i = 0; i < cars.size(); i++) {
+            sum += cars.get(i).getPrice();
+        }
+        return sum;
+    }
+
+    /**
+     * Finds a car within the specified speed range.
+     *
+     * @param minSpeed the minimum speed of the desired car
+     * @param maxSpeed the maximum speed of the desired car
+     * @return the first car within the specified speed range, or {@code null} if no such car is found
+     */
+    public Car findCarBySpeedRange(double minSpeed, double maxSpeed) {
+        for (int i = 0; i < cars.size(); i++) {
+            Car car = cars.get(i);
+            if (car.getSpeed() >= minSpeed && car.getSpeed() <= maxSpeed) {
+                return car;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the next version with the specified car appended.
+     *
+     * @param car the car to add
+     * @return the new version
+     */
+    public FleetVersion withAdded(Car car) {
+        checkCar(car);
+        return new FleetVersion(version + 1, cars.append(car));
+    }
+
+    /**
+     * Returns the next version with the car at the specified position replaced.
+     *
+     * @param position the position of the car to replace
+     * @param car      the new car
+     * @return the new version
+     */
+    public FleetVersion withReplaced(int position, Car car) {
+        checkCar(car);
+        return new FleetVersion(version + 1, cars.set(position, car));
+    }
+
+    /**
+     * Returns the next version without the car at the specified position. The following cars move one position
+     * forward, so unlike the other changes this one copies the fleet.
+     *
+     * @param position the position of the car to remove
+     * @return the new version
+     */
+    public FleetVersion withRemoved(int position) {
+        return new FleetVersion(version + 1, cars.remove(position));
+    }
+
+    /**
+     * Returns the next version with the cars sorted in ascending order of the specified attributes, like
+     * {@link TaxiFleet#sortBy(CarAttribute...)}. This version keeps its order.
+     *
+     * @param attributes the attributes to sort by, most significant first
+     * @return the new version
+     */
+    public FleetVersion sortedBy(CarAttribute... attributes) {
+        if (attributes.length == 0) {
+            throw new CarException("Invalid sort: at least one attribute is required.");
+        }
+        Car[] array = cars.toArray();
+        double[][] keyColumns = new double[attributes.length][];
+        for (int a = 0; a < attributes.length; a++) {
+            double[] keys = new double[array.length];
+            for (int i = 0; i < array.length; i++) {
+                keys[i] = attributes[a].valueOf(array[i]);
+            }
+            keyColumns[a] = keys;
+        }
+        IndexSorter.permute(array, IndexSorter.order(keyColumns, array.length, false), array.length);
+        return new FleetVersion(version + 1, CarVector.of(array, array.length));
+    }
+
+    /**
+     * A read-only view of the cars of this version.
+     */
+    private final class CarsView extends AbstractList<Car> implements RandomAccess {
+        @Override
+        public Car get(int index) {
+            return cars.get(index);
+        }
+
+        @Override
+        public int size() {
+            return cars.size();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package fleet;
+
+/**
+ * The {@code fleet.ImportReport} class summarizes one run of a {@link FleetImporter}: how many rows were read,
+ * imported and rejected, how many bytes were consumed and how long it took.
+ */
+public class ImportReport {
+    private final long rows;
+    private final long imported;
+    private final long rejected;
+    private final long bytes;
+    private final long elapsedNanos;
+    private final String lastRejection;
+
+    ImportReport(long rows, long imported, long rejected, long bytes, long elapsedNanos, String lastRejection) {
+        this.rows = rows;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+        this.lastRejection = lastRejection;
+    }
+
+    /**
+     * Gets the number of data rows read, excluding blank lines and the header.
+     *
+     * @return the number of rows read
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the number of cars passed to the sink.
+     *
+     * @return the number of imported cars
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * Gets the number of rows that could not be parsed or failed car validation.
+     *
+     * @return the number of rejected rows
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Gets the number of bytes read from the channel.
+     *
+     * @return the number of bytes read
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the duration of the import.
+     *
+     * @return the duration of the import in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the import throughput.
+     *
+     * @return the number of rows read per second
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Gets the reason the last rejected row was rejected, for diagnostics.
+     *
+     * @return the reason of the last rejection, or {@code null} if no row was rejected
+     */
+    public String getLastRejection() {
+        return lastRejection;
+    }
+
+    /**
+     * Returns a string representation of the report.
+     *
+     * @return a string representation of the report
+     */
+    @Override
+    public String toString() {
+        return "ImportReport{" +
+                "rows=" + rows +
+                ", imported=" + imported +
+                ", rejected=" + rejected +
+                ", bytes=" + bytes +
+                ", rowsPerSecond=" + Math.round(getRowsPerSecond()) +
+                '}';
+    }
+}
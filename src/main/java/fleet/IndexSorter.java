@@ -0,0 +1,208 @@
+package fleet;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorts index permutations by primitive {@code double} keys without boxing and without comparator calls.
+ * Keys are mapped to {@code long} values whose unsigned order matches {@link Double#compare(double, double)},
+ * and the permutation is sorted with a stable least-significant-digit radix sort. Large inputs may be sorted
+ * in parallel by radix sorting chunks on the common fork-join pool and merging them.
+ */
+final class IndexSorter {
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int PASSES = Long.SIZE / RADIX_BITS;
+
+    /**
+     * Chunks of at most this many keys are radix sorted sequentially by the parallel sort.
+     */
+    private static final int PARALLEL_LEAF = 1 << 16;
+
+    private IndexSorter() {
+    }
+
+    /**
+     * Maps a double to a long whose unsigned order is the order of {@link Double#compare(double, double)}.
+     *
+     * @param value the value to map
+     * @return the sortable bits of the value
+     */
+    static long sortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+
+    /**
+     * Computes the permutation that sorts the first {@code length} keys in ascending order.
+     * Equal keys keep their original relative order.
+     *
+     * @param keys   the keys to sort by
+     * @param length the number of keys to sort
+     * @return an array whose {@code i}-th element is the index of the {@code i}-th smallest key
+     */
+    static int[] order(double[] keys, int length) {
+        return order(new double[][]{keys}, length, false);
+    }
+
+    /**
+     * Computes the permutation that sorts the first {@code length} rows by several key columns: by the first
+     * column, then by the second one among rows with equal first keys, and so on. Rows with equal keys in
+     * every column keep their original relative order.
+     * <p>
+     * The columns are applied from the least significant to the most significant one, each time stably
+     * sorting the permutation computed so far.
+     *
+     * @param keyColumns the key columns, most significant first
+     * @param length     the number of rows to sort
+     * @param parallel   whether to sort on the common fork-join pool
+     * @return an array whose {@code i}-th element is the row that goes to position {@code i}
+     */
+    static int[] order(double[][] keyColumns, int length, boolean parallel) {
+        long[] sortable = new long[length];
+        int[] order = new int[length];
+        for (int i = 0; i < length; i++) {
+            order[i] = i;
+        }
+        long[] keyBuffer = new long[length];
+        int[] valueBuffer = new int[length];
+        for (int column = keyColumns.length - 1; column >= 0; column--) {
+            double[] keys = keyColumns[column];
+            for (int i = 0; i < length; i++) {
+                sortable[i] = sortableBits(keys[order[i]]);
+            }
+            if (parallel && length > PARALLEL_LEAF) {
+                ForkJoinPool.commonPool().invoke(new MergeSortTask(sortable, order, keyBuffer, valueBuffer, 0, length));
+            } else {
+                radixSort(sortable, order, keyBuffer, valueBuffer, 0, length);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Radix sorts the pairs within {@code [from, to)}, using the same range of the buffers as scratch space.
+     */
+    private static void radixSort(long[] keys, int[] values, long[] keyBuffer, int[] valueBuffer, int from, int to) {
+        int[] counts = new int[RADIX];
+        long[] srcKeys = keys, dstKeys = keyBuffer;
+        int[] srcValues = values, dstValues = valueBuffer;
+
+        for (int pass = 0; pass < PASSES; pass++) {
+            int shift = pass * RADIX_BITS;
+            Arrays.fill(counts, 0);
+            for (int i = from; i < to; i++) {
+                counts[(int) (srcKeys[i] >>> shift) & (RADIX - 1)]++;
+            }
+            if (from == to || counts[(int) (srcKeys[from] >>> shift) & (RADIX - 1)] == to - from) {
+                continue; // every key has the same digit, the pass would not move anything
+            }
+            for (int i = 0, sum = from; i < RADIX; i++) {
+                int count = counts[i];
+                counts[i] = sum;
+                sum += count;
+            }
+            for (int i = from; i < to; i++) {
+                int digit = (int) (srcKeys[i] >>> shift) & (RADIX - 1);
+                int target = counts[digit]++;
+                dstKeys[target] = srcKeys[i];
+                dstValues[target] = srcValues[i];
+            }
+            long[] tmpKeys = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = tmpKeys;
+            int[] tmpValues = srcValues;
+            srcValues = dstValues;
+            dstValues = tmpValues;
+        }
+
+        if (srcKeys != keys) {
+            System.arraycopy(srcKeys, from, keys, from, to - from);
+            System.arraycopy(srcValues, from, values, from, to - from);
+        }
+    }
+
+    /**
+     * Rearranges the first {@code length} items so that position {@code i} receives the item previously at
+     * {@code order[i]}. The permutation is applied in place by following its cycles; {@code order} is consumed.
+     *
+     * @param items  the items to rearrange
+     * @param order  the permutation to apply
+     * @param length the number of items
+     * @param <T>    the type of the items
+     */
+    static <T> void permute(T[] items, int[] order, int length) {
+        for (int start = 0; start < length; start++) {
+            if (order[start] == start) {
+                continue;
+            }
+            T first = items[start];
+            int j = start;
+            while (true) {
+                int k = order[j];
+                order[j] = j;
+                if (k == start) {
+                    items[j] = first;
+                    break;
+                }
+                items[j] = items[k];
+                j = k;
+            }
+        }
+    }
+
+    /**
+     * A stable merge sort of a range of pairs whose leaves are radix sorted and whose halves run in parallel.
+     */
+    private static class MergeSortTask extends RecursiveAction {
+        private final long[] keys;
+        private final int[] values;
+        private final long[] keyBuffer;
+        private final int[] valueBuffer;
+        private final int from;
+        private final int to;
+
+        MergeSortTask(long[] keys, int[] values, long[] keyBuffer, int[] valueBuffer, int from, int to) {
+            this.keys = keys;
+            this.values = values;
+            this.keyBuffer = keyBuffer;
+            this.valueBuffer = valueBuffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_LEAF) {
+                radixSort(keys, values, keyBuffer, valueBuffer, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new MergeSortTask(keys, values, keyBuffer, valueBuffer, from, mid),
+                    new MergeSortTask(keys, values, keyBuffer, valueBuffer, mid, to));
+            merge(mid);
+        }
+
+        /**
+         * Merges the sorted halves {@code [from, mid)} and {@code [mid, to)} through the buffers.
+         */
+        private void merge(int mid) {
+            if (Long.compareUnsigned(keys[mid - 1], keys[mid]) <= 0) {
+                return; // the halves are already in order
+            }
+            int i = from, j = mid;
+            for (int k = from; k < to; k++) {
+                if (j == to || (i < mid && Long.compareUnsigned(keys[i], keys[j]) <= 0)) {
+                    keyBuffer[k] = keys[i];
+                    valueBuffer[k] = values[i++];
+                } else {
+                    keyBuffer[k] = keys[j];
+                    valueBuffer[k] = values[j++];
+                }
+            }
+            System.arraycopy(keyBuffer, from, keys, from, to - from);
+            System.arraycopy(valueBuffer, from, values, from, to - from);
+        }
+    }
+}
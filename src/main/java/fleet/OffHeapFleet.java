@@ -0,0 +1,395 @@
+package fleet;
+
+import cars.Car;
+import cars.CarAttribute;
+import cars.CarType;
+import cars.ModelRegistry;
+import customExceptions.CarException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The {@code fleet.OffHeapFleet} class stores a fleet of cars outside of the Java heap, as fixed-width records
+ * laid out by {@link FleetRecordLayout} in direct byte buffers. The garbage collector only sees a handful of
+ * buffer objects however many cars the fleet holds, so even fleets of tens of millions of cars add nothing to
+ * marking work or pause times. Model names are kept as {@link ModelRegistry} ids.
+ * <p>
+ * Records are stored in chunks of up to {@value #CHUNK_RECORDS} cars; only the last chunk grows, so appending
+ * never copies more than one chunk. Queries and sorting run directly over the records, and {@code Car} objects
+ * are only created on demand, e.g. through the {@link #asList()} view. The native memory is released by the
+ * garbage collector once the fleet becomes unreachable.
+ */
+public class OffHeapFleet {
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_RECORDS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_RECORDS - 1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+    private int size;
+
+    /**
+     * Constructs an empty off-heap fleet.
+     */
+    public OffHeapFleet() {
+    }
+
+    /**
+     * Constructs an empty off-heap fleet able to hold the specified number of cars without growing.
+     *
+     * @param initialCapacity the number of cars to reserve room for
+     */
+    public OffHeapFleet(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new CarException("Invalid fleet capacity: must be non-negative.");
+        }
+        reserve(initialCapacity);
+    }
+
+    /**
+     * Constructs an off-heap fleet holding the specified cars in the same order.
+     *
+     * @param cars an array of cars
+     */
+    public OffHeapFleet(Car[] cars) {
+        this(cars == null ? 0 : cars.length);
+        if (cars == null) {
+            throw new CarException("Invalid fleet: cars must not be null.");
+        }
+        for (Car car : cars) {
+            add(car);
+        }
+    }
+
+    /**
+     * Constructs an off-heap fleet holding the cars of the specified taxi fleet in the same order.
+     *
+     * @param taxiFleet the taxi fleet to copy
+     */
+    public OffHeapFleet(TaxiFleet taxiFleet) {
+        this(taxiFleet.getCars());
+    }
+
+    private static ByteBuffer allocate(int records) {
+        return ByteBuffer.allocateDirect(records * FleetRecordLayout.RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Makes room for the specified total number of cars, filling up the last chunk before adding new ones.
+     *
+     * @param capacity the number of cars to reserve room for
+     */
+    private void reserve(int capacity) {
+        int fullChunks = capacity >>> CHUNK_SHIFT;
+        int rest = capacity & CHUNK_MASK;
+        int chunkCount = fullChunks + (rest == 0 ? 0 : 1);
+        if (chunkCount > chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount);
+        }
+        for (int c = 0; c < chunkCount; c++) {
+            int records = c < fullChunks ? CHUNK_RECORDS : rest;
+            ByteBuffer chunk = chunks[c];
+            if (chunk == null) {
+                chunks[c] = allocate(records);
+            } else if (chunk.capacity() < records * FleetRecordLayout.RECORD_SIZE) {
+                chunks[c] = allocate(records).put(chunk.clear()).clear();
+            }
+        }
+    }
+
+    /**
+     * Makes room for one more car, growing the last chunk by half up to the chunk size.
+     */
+    private void ensureCapacity() {
+        int c = size >>> CHUNK_SHIFT;
+        if (c < chunks.length && chunks[c] != null
+                && offset(size) < chunks[c].capacity()) {
+            return;
+        }
+        int inChunk = size & CHUNK_MASK;
+        int records = Math.min(CHUNK_RECORDS, Math.max(INITIAL_CAPACITY, inChunk + (inChunk >> 1)));
+        reserve((c << CHUNK_SHIFT) + records);
+    }
+
+    /**
+     * Gets the offset of the record of the specified car within its chunk.
+     */
+    private static int offset(int index) {
+        return (index & CHUNK_MASK) * FleetRecordLayout.RECORD_SIZE;
+    }
+
+    /**
+     * Gets the buffer holding the record of the specified car.
+     */
+    private ByteBuffer chunk(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return chunks[index >>> CHUNK_SHIFT];
+    }
+
+    /**
+     * Appends the specified car as a new record.
+     *
+     * @param car the car to append
+     */
+    public void add(Car car) {
+        if (car == null) {
+            throw new CarException("Invalid car: must not be null.");
+        }
+        ensureCapacity();
+        ByteBuffer chunk = chunks[size >>> CHUNK_SHIFT];
+        int base = offset(size);
+        chunk.put(base + FleetRecordLayout.TYPE, (byte) CarType.of(car).ordinal())
+                .putInt(base + FleetRecordLayout.MODEL, car.getModelId())
+                .putDouble(base + FleetRecordLayout.FUEL_CONSUMPTION, car.getFuelConsumption())
+                .putDouble(base + FleetRecordLayout.SPEED, car.getSpeed())
+                .putDouble(base + FleetRecordLayout.PRICE, car.getPrice())
+                .putDouble(base + FleetRecordLayout.KWATT, CarType.kWattOf(car));
+        size++;
+    }
+
+    /**
+     * Returns the number of cars in the fleet.
+     *
+     * @return the number of cars in the fleet
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes of native memory reserved for the records.
+     *
+     * @return the number of bytes reserved off the heap
+     */
+    public long offHeapBytes() {
+        long bytes = 0;
+        for (ByteBuffer chunk : chunks) {
+            bytes += chunk == null ? 0 : chunk.capacity();
+        }
+        return bytes;
+    }
+
+    /**
+     * Gets the type of the specified car.
+     *
+     * @param index the position of the car
+     * @return the type of the car
+     */
+    public CarType getType(int index) {
+        return CarType.ofOrdinal(chunk(index).get(offset(index) + FleetRecordLayout.TYPE));
+    }
+
+    /**
+     * Gets the model of the specified car.
+     *
+     * @param index the position of the car
+     * @return the model of the car
+     */
+    public String getModel(int index) {
+        return ModelRegistry.nameOf(chunk(index).getInt(offset(index) + FleetRecordLayout.MODEL));
+    }
+
+    /**
+     * Gets the value of the specified attribute of the specified car.
+     *
+     * @param index     the position of the car
+     * @param attribute the attribute to read
+     * @return the value of the attribute
+     */
+    public double get(int index, CarAttribute attribute) {
+        return chunk(index).getDouble(offset(index) + FleetRecordLayout.offsetOf(attribute));
+    }
+
+    /**
+     * Creates a {@code Car} object for the specified car.
+     *
+     * @param index the position of the car
+     * @return a new car with the attributes stored in the record
+     */
+    public Car getCar(int index) {
+        ByteBuffer chunk = chunk(index);
+        int base = offset(index);
+        return CarType.ofOrdinal(chunk.get(base + FleetRecordLayout.TYPE)).create(
+                ModelRegistry.nameOf(chunk.getInt(base + FleetRecordLayout.MODEL)),
+                chunk.getDouble(base + FleetRecordLayout.FUEL_CONSUMPTION),
+                chunk.getDouble(base + FleetRecordLayout.SPEED),
+                chunk.getDouble(base + FleetRecordLayout.PRICE),
+                chunk.getDouble(base + FleetRecordLayout.KWATT));
+    }
+
+    /**
+     * Returns an unmodifiable list view of the fleet. Every {@code get} creates the {@code Car} from its record,
+     * so the view itself takes no memory and always reflects the current order of the fleet.
+     *
+     * @return a list view of the cars in the fleet
+     */
+    public List<Car> asList() {
+        return new CarView();
+    }
+
+    /**
+     * A list creating {@code Car} objects from the records on demand.
+     */
+    private class CarView extends AbstractList<Car> implements RandomAccess {
+        @Override
+        public Car get(int index) {
+            return getCar(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Calculates the total cost of the fleet directly from the records.
+     *
+     * @return the total cost of the fleet in dollars
+     */
+    public double calculateFleetCost() {
+        double sum = 0;
+        for (int c = 0; c << CHUNK_SHIFT < size; c++) {
+            ByteBuffer chunk = chunks[c];
+            int limit = Math.min(size - (c << CHUNK_SHIFT), CHUNK_RECORDS) * FleetRecordLayout.RECORD_SIZE;
+            for (int offset = FleetRecordLayout.PRICE; offset < limit; offset += FleetRecordLayout.RECORD_SIZE) {
+                sum += chunk.getDouble(offset);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Sorts the cars in ascending order of fuel consumption. Cars with equal fuel consumption keep their order.
+     */
+    public void sortByFuelConsumption() {
+        sortBy(CarAttribute.FUEL_CONSUMPTION);
+    }
+
+    /**
+     * Sorts the cars in ascending order of the specified attributes: by the first attribute, then by the second
+     * one among cars with equal first attributes, and so on. Cars with equal values of all attributes keep their
+     * relative order. The key columns are read from the records, the positions are radix sorted by them, and the
+     * records are then moved in place.
+     *
+     * @param attributes the attributes to sort by, most significant first
+     */
+    public void sortBy(CarAttribute... attributes) {
+        if (attributes.length == 0) {
+            throw new CarException("Invalid sort: at least one attribute is required.");
+        }
+        double[][] keyColumns = new double[attributes.length][];
+        for (int a = 0; a < attributes.length; a++) {
+            int field = FleetRecordLayout.offsetOf(attributes[a]);
+            double[] keys = new double[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = chunks[i >>> CHUNK_SHIFT].getDouble(offset(i) + field);
+            }
+            keyColumns[a] = keys;
+        }
+        applyOrder(IndexSorter.order(keyColumns, size, false));
+    }
+
+    /**
+     * Moves the records so that position {@code i} receives the record previously at {@code order[i]}.
+     * The permutation is applied in place by following its cycles; {@code order} is consumed.
+     *
+     * @param order the permutation to apply
+     */
+    private void applyOrder(int[] order) {
+        ByteBuffer saved = ByteBuffer.allocate(FleetRecordLayout.RECORD_SIZE);
+        for (int start = 0; start < size; start++) {
+            if (order[start] == start) {
+                continue;
+            }
+            copyRecord(start, saved, 0);
+            int j = start;
+            while (true) {
+                int k = order[j];
+                order[j] = j;
+                if (k == start) {
+                    chunks[j >>> CHUNK_SHIFT].put(offset(j), saved, 0, FleetRecordLayout.RECORD_SIZE);
+                    break;
+                }
+                copyRecord(k, chunks[j >>> CHUNK_SHIFT], offset(j));
+                j = k;
+            }
+        }
+    }
+
+    /**
+     * Copies the record of the specified car into a buffer.
+     */
+    private void copyRecord(int index, ByteBuffer target, int targetOffset) {
+        target.put(targetOffset, chunks[index >>> CHUNK_SHIFT], offset(index), FleetRecordLayout.RECORD_SIZE);
+    }
+
+    /**
+     * Finds the first car whose speed lies within the specified range, directly from the records.
+     *
+     * @param minSpeed the minimum speed of the desired car
+     * @param maxSpeed the maximum speed of the desired car
+     * @return the position of the first car within the speed range, or -1 if no such car is found
+     */
+    public int indexOfSpeedRange(double minSpeed, double maxSpeed) {
+        return indexOfRange(CarAttribute.SPEED, minSpeed, maxSpeed);
+    }
+
+    /**
+     * Finds the first car whose value of the specified attribute lies within the specified range.
+     *
+     * @param attribute the attribute to compare
+     * @param min       the minimum value, inclusive
+     * @param max       the maximum value, inclusive
+     * @return the position of the first car within the range, or -1 if no such car is found
+     */
+    public int indexOfRange(CarAttribute attribute, double min, double max) {
+        int field = FleetRecordLayout.offsetOf(attribute);
+        for (int i = 0; i < size; i++) {
+            double value = chunks[i >>> CHUNK_SHIFT].getDouble(offset(i) + field);
+            if (value >= min && value <= max) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the cars whose value of the specified attribute lies within the specified range.
+     *
+     * @param attribute the attribute to compare
+     * @param min       the minimum value, inclusive
+     * @param max       the maximum value, inclusive
+     * @return the number of cars within the range
+     */
+    public int countInRange(CarAttribute attribute, double min, double max) {
+        int field = FleetRecordLayout.offsetOf(attribute);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            double value = chunks[i >>> CHUNK_SHIFT].getDouble(offset(i) + field);
+            if (value >= min && value <= max) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds a car within the specified speed range.
+     *
+     * @param minSpeed the minimum speed of the desired car
+     * @param maxSpeed the maximum speed of the desired car
+     * @return a car within the specified speed range, or {@code null} if no such car is found
+     */
+    public Car findCarBySpeedRange(double minSpeed, double maxSpeed) {
+        int index = indexOfSpeedRange(minSpeed, maxSpeed);
+        return index < 0 ? null : getCar(index);
+    }
+}
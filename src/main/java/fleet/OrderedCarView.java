@@ -0,0 +1,219 @@
+package fleet;
+
+import cars.Car;
+import cars.CarAttribute;
+import cars.CarType;
+import customExceptions.CarException;
+
+import java.util.*;
+
+/**
+ * The {@code fleet.OrderedCarView} class keeps cars ordered by one attribute as they are added and removed.
+ * It is backed by a red-black tree, so every update takes O(log N) and the best {@code k} cars are read in
+ * O(log N + k), without ever re-sorting the whole fleet. The same car may be added several times; it is then
+ * listed once per addition.
+ */
+public class OrderedCarView implements Iterable<Car> {
+    private final CarAttribute attribute;
+    private final TreeMap<Car, Integer> counts;
+    private int size;
+
+    /**
+     * Constructs an empty view ordered by the specified attribute.
+     *
+     * @param attribute the attribute to order by
+     */
+    public OrderedCarView(CarAttribute attribute) {
+        if (attribute == null) {
+            throw new CarException("Invalid ordered view: attribute must not be null.");
+        }
+        this.attribute = attribute;
+        this.counts = new TreeMap<>(comparator(attribute));
+    }
+
+    /**
+     * Constructs a view ordered by the specified attribute holding the specified cars.
+     *
+     * @param attribute the attribute to order by
+     * @param cars      the cars to add
+     */
+    public OrderedCarView(CarAttribute attribute, Iterable<? extends Car> cars) {
+        this(attribute);
+        for (Car car : cars) {
+            add(car);
+        }
+    }
+
+    /**
+     * Creates a total order of cars by the specified attribute. Cars with equal values of the attribute are
+     * ordered by all their other attributes, so that only equal cars compare as equal.
+     *
+     * @param attribute the attribute to order by
+     * @return the comparator
+     */
+    private static Comparator<Car> comparator(CarAttribute attribute) {
+        return (car1, car2) -> {
+            int c = Double.compare(attribute.valueOf(car1), attribute.valueOf(car2));
+            if (c != 0) {
+                return c;
+            }
+            for (CarAttribute other : CarAttribute.values()) {
+                c = Double.compare(other.valueOf(car1), other.valueOf(car2));
+                if (c != 0) {
+                    return c;
+                }
+            }
+            c = car1.getModel().compareTo(car2.getModel());
+            return c != 0 ? c : CarType.of(car1).compareTo(CarType.of(car2));
+        };
+    }
+
+    /**
+     * Gets the attribute this view is ordered by.
+     *
+     * @return the attribute this view is ordered by
+     */
+    public CarAttribute getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Adds a car to the view.
+     *
+     * @param car the car to add
+     */
+    public void add(Car car) {
+        if (car == null) {
+            throw new CarException("Invalid car: must not be null.");
+        }
+        counts.merge(car, 1, Integer::sum);
+        size++;
+    }
+
+    /**
+     * Removes one occurrence of a car from the view.
+     *
+     * @param car the car to remove
+     * @return true if the view contained the car
+     */
+    public boolean remove(Car car) {
+        if (car == null) {
+            return false;
+        }
+        Integer count = counts.get(car);
+        if (count == null) {
+            return false;
+        }
+        if (count == 1) {
+            counts.remove(car);
+        } else {
+            counts.put(car, count - 1);
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes all cars from the view.
+     */
+    public void clear() {
+        counts.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns the number of cars in the view.
+     *
+     * @return the number of cars in the view
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the car with the smallest value of the attribute.
+     *
+     * @return the first car, or {@code null} if the view is empty
+     */
+    public Car first() {
+        return counts.isEmpty() ? null : counts.firstKey();
+    }
+
+    /**
+     * Gets the car with the largest value of the attribute.
+     *
+     * @return the last car, or {@code null} if the view is empty
+     */
+    public Car last() {
+        return counts.isEmpty() ? null : counts.lastKey();
+    }
+
+    /**
+     * Lists the cars with the smallest values of the attribute.
+     *
+     * @param k the maximum number of cars to list
+     * @return at most {@code k} cars in ascending order of the attribute
+     */
+    public List<Car> first(int k) {
+        return take(counts, k);
+    }
+
+    /**
+     * Lists the cars with the largest values of the attribute.
+     *
+     * @param k the maximum number of cars to list
+     * @return at most {@code k} cars in descending order of the attribute
+     */
+    public List<Car> last(int k) {
+        return take(counts.descendingMap(), k);
+    }
+
+    /**
+     * Lists the first {@code k} cars of the specified map, repeating cars added several times.
+     */
+    private static List<Car> take(NavigableMap<Car, Integer> map, int k) {
+        if (k < 0) {
+            throw new CarException("Invalid top-k size: must be non-negative.");
+        }
+        List<Car> result = new ArrayList<>(Math.min(k, 16));
+        for (Map.Entry<Car, Integer> entry : map.entrySet()) {
+            for (int i = 0; i < entry.getValue() && result.size() < k; i++) {
+                result.add(entry.getKey());
+            }
+            if (result.size() == k) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns an iterator over the cars in ascending order of the attribute.
+     *
+     * @return an iterator over the cars
+     */
+    @Override
+    public Iterator<Car> iterator() {
+        Iterator<Map.Entry<Car, Integer>> entries = counts.entrySet().iterator();
+        return new Iterator<>() {
+            private Car current;
+            private int remaining;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0 || entries.hasNext();
+            }
+
+            @Override
+            public Car next() {
+                if (remaining == 0) {
+                    Map.Entry<Car, Integer> entry = entries.next();
+                    current = entry.getKey();
+                    remaining = entry.getValue();
+                }
+                remaining--;
+                return current;
+            }
+        };
+    }
+}
@@ -0,0 +1,376 @@
+package fleet;
+
+import cars.Car;
+import cars.CarAttribute;
+import cars.CarType;
+import customExceptions.CarException;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The {@code fleet.PartitionedFleet} class stores a fleet of cars in one partition per {@link CarType}, so that
+ * sedans, SUVs, electric cars and plain cars are kept apart. Every partition holds cars of a single class together
+ * with primitive columns of their fuel consumption, speed, price and power consumption.
+ * <p>
+ * Aggregates and queries over one type scan only the columns of its partition, without checking the class of
+ * every car; queries over the whole fleet visit the partitions one after another. The column loops go through
+ * {@link ColumnKernels}. {@link #asList()} gives a view of all cars, partition by partition, in the order they
+ * were added within each type.
+ */
+public class PartitionedFleet {
+    private static final CarType[] TYPES = CarType.values();
+
+    private final Partition[] partitions = new Partition[TYPES.length];
+    private int size;
+
+    /**
+     * Constructs an empty partitioned fleet.
+     */
+    public PartitionedFleet() {
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition();
+        }
+    }
+
+    /**
+     * Constructs a partitioned fleet holding the specified cars.
+     *
+     * @param cars an array of cars
+     */
+    public PartitionedFleet(Car[] cars) {
+        this();
+        if (cars == null) {
+            throw new CarException("Invalid fleet: cars must not be null.");
+        }
+        for (Car car : cars) {
+            add(car);
+        }
+    }
+
+    /**
+     * Constructs a partitioned fleet holding the cars of the specified taxi fleet.
+     *
+     * @param taxiFleet the taxi fleet to convert
+     */
+    public PartitionedFleet(TaxiFleet taxiFleet) {
+        this(taxiFleet.getCars());
+    }
+
+    /**
+     * Adds the specified car to the partition of its type.
+     *
+     * @param car the car to add
+     */
+    public void add(Car car) {
+        if (car == null) {
+            throw new CarException("Invalid car: must not be null.");
+        }
+        partitions[CarType.of(car).ordinal()].add(car);
+        size++;
+    }
+
+    /**
+     * Gets the partition of the specified type.
+     */
+    private Partition partition(CarType type) {
+        if (type == null) {
+            throw new CarException("Invalid car type: must not be null.");
+        }
+        return partitions[type.ordinal()];
+    }
+
+    /**
+     * Returns the number of cars in the fleet.
+     *
+     * @return the number of cars
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of cars of the specified type.
+     *
+     * @param type the type of the cars
+     * @return the number of cars of the type
+     */
+    public int size(CarType type) {
+        return partition(type).size;
+    }
+
+    /**
+     * Returns an unmodifiable view of the cars of the specified type in the order they were added. The view
+     * reflects cars added later.
+     *
+     * @param type the type of the cars
+     * @return the cars of the type
+     */
+    public List<Car> cars(CarType type) {
+        return new PartitionView(partition(type));
+    }
+
+    /**
+     * Returns an unmodifiable view of all cars of the fleet: first the plain cars, then the sedans, the SUVs and
+     * the electric cars, in the order of {@link CarType}. The view reflects cars added later.
+     *
+     * @return the cars of the fleet
+     */
+    public List<Car> asList() {
+        return new CarsView();
+    }
+
+    /**
+     * Calculates the total cost of the fleet.
+     *
+     * @return the total cost of the fleet in dollars
+     */
+    public double calculateFleetCost() {
+        double sum = 0;
+        for (Partition partition : partitions) {
+            sum += ColumnKernels.get().sum(partition.prices, partition.size);
+        }
+        return sum;
+    }
+
+    /**
+     * Calculates the total cost of the cars of the specified type.
+     *
+     * @param type the type of the cars
+     * @return the total cost of the cars of the type in dollars
+     */
+    public double calculateFleetCost(CarType type) {
+        Partition partition = partition(type);
+        return ColumnKernels.get().sum(partition.prices, partition.size);
+    }
+
+    /**
+     * Finds the smallest value of the specified attribute among the cars of the specified type.
+     *
+     * @param type      the type of the cars
+     * @param attribute the attribute
+     * @return the smallest value, or {@code NaN} if there are no cars of the type
+     */
+    public double min(CarType type, CarAttribute attribute) {
+        Partition partition = partition(type);
+        return ColumnKernels.get().min(partition.column(attribute), partition.size);
+    }
+
+    /**
+     * Finds the largest value of the specified attribute among the cars of the specified type.
+     *
+     * @param type      the type of the cars
+     * @param attribute the attribute
+     * @return the largest value, or {@code NaN} if there are no cars of the type
+     */
+    public double max(CarType type, CarAttribute attribute) {
+        Partition partition = partition(type);
+        return ColumnKernels.get().max(partition.column(attribute), partition.size);
+    }
+
+    /**
+     * Counts the cars whose value of the specified attribute lies within the specified range.
+     *
+     * @param attribute the attribute to compare
+     * @param min       the minimum value, inclusive
+     * @param max       the maximum value, inclusive
+     * @return the number of cars within the range
+     */
+    public int countInRange(CarAttribute attribute, double min, double max) {
+        int count = 0;
+        for (CarType type : TYPES) {
+            count += countInRange(type, attribute, min, max);
+        }
+        return count;
+    }
+
+    /**
+     * Counts the cars of the specified type whose value of the specified attribute lies within the specified range.
+     *
+     * @param type      the type of the cars
+     * @param attribute the attribute to compare
+     * @param min       the minimum value, inclusive
+     * @param max       the maximum value, inclusive
+     * @return the number of cars of the type within the range
+     */
+    public int countInRange(CarType type, CarAttribute attribute, double min, double max) {
+        Partition partition = partition(type);
+        return ColumnKernels.get().countInRange(partition.column(attribute), partition.size, min, max);
+    }
+
+    /**
+     * Finds all cars of the specified type whose value of the specified attribute lies within the specified range.
+     *
+     * @param type      the type of the cars
+     * @param attribute the attribute to compare
+     * @param min       the minimum value, inclusive
+     * @param max       the maximum value, inclusive
+     * @return the cars of the type within the range, in the order they were added
+     */
+    public List<Car> findCarsInRange(CarType type, CarAttribute attribute, double min, double max) {
+        Partition partition = partition(type);
+        double[] column = partition.column(attribute);
+        List<Car> result = new ArrayList<>();
+        for (int i = 0; i < partition.size; i++) {
+            double value = column[i];
+            if (value >= min && value <= max) {
+                result.add(partition.cars[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds a car within the specified speed range.
+     *
+     * @param minSpeed the minimum speed of the desired car
+     * @param maxSpeed the maximum speed of the desired car
+     * @return the first car of {@link #asList()} within the speed range, or {@code null} if no such car is found
+     */
+    public Car findCarBySpeedRange(double minSpeed, double maxSpeed) {
+        for (CarType type : TYPES) {
+            Car car = findCarBySpeedRange(type, minSpeed, maxSpeed);
+            if (car != null) {
+                return car;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds a car of the specified type within the specified speed range.
+     *
+     * @param type     the type of the desired car
+     * @param minSpeed the minimum speed of the desired car
+     * @param maxSpeed the maximum speed of the desired car
+     * @return the first car of the type within the speed range, or {@code null} if no such car is found
+     */
+    public Car findCarBySpeedRange(CarType type, double minSpeed, double maxSpeed) {
+        Partition partition = partition(type);
+        int index = ColumnKernels.get().indexOfRange(partition.speeds, partition.size, minSpeed, maxSpeed);
+        return index < 0 ? null : partition.cars[index];
+    }
+
+    /**
+     * Finds the cheapest car of the specified type within the specified speed range, e.g. the cheapest electric
+     * car in a speed band.
+     *
+     * @param type     the type of the desired car
+     * @param minSpeed the minimum speed of the desired car
+     * @param maxSpeed the maximum speed of the desired car
+     * @return the cheapest car of the type within the speed range, the first added among equally cheap ones,
+     * or {@code null} if no such car is found
+     */
+    public Car findCheapestBySpeedRange(CarType type, double minSpeed, double maxSpeed) {
+        Partition partition = partition(type);
+        double[] speeds = partition.speeds;
+        double[] prices = partition.prices;
+        int best = -1;
+        double bestPrice = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < partition.size; i++) {
+            double speed = speeds[i];
+            if (speed >= minSpeed && speed <= maxSpeed && (best < 0 || prices[i] < bestPrice)) {
+                best = i;
+                bestPrice = prices[i];
+            }
+        }
+        return best < 0 ? null : partition.cars[best];
+    }
+
+    /**
+     * The cars of one type together with primitive columns of their attributes.
+     */
+    private static final class Partition {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private Car[] cars = new Car[INITIAL_CAPACITY];
+        private double[] fuelConsumptions = new double[INITIAL_CAPACITY]; // in liters per 100 km
+        private double[] speeds = new double[INITIAL_CAPACITY]; // in km/h
+        private double[] prices = new double[INITIAL_CAPACITY]; // in dollars
+        private double[] kWatts = new double[INITIAL_CAPACITY]; // in kilowatts per 100 km
+        private int size;
+
+        void add(Car car) {
+            if (size == cars.length) {
+                int newCapacity = cars.length + (cars.length >> 1);
+                cars = Arrays.copyOf(cars, newCapacity);
+                fuelConsumptions = Arrays.copyOf(fuelConsumptions, newCapacity);
+                speeds = Arrays.copyOf(speeds, newCapacity);
+                prices = Arrays.copyOf(prices, newCapacity);
+                kWatts = Arrays.copyOf(kWatts, newCapacity);
+            }
+            cars[size] = car;
+            fuelConsumptions[size] = car.getFuelConsumption();
+            speeds[size] = car.getSpeed();
+            prices[size] = car.getPrice();
+            kWatts[size] = CarType.kWattOf(car);
+            size++;
+        }
+
+        double[] column(CarAttribute attribute) {
+            if (attribute == null) {
+                throw new CarException("Invalid attribute: must not be null.");
+            }
+            switch (attribute) {
+                case FUEL_CONSUMPTION:
+                    return fuelConsumptions;
+                case SPEED:
+                    return speeds;
+                case PRICE:
+                    return prices;
+                default:
+                    return kWatts;
+            }
+        }
+    }
+
+    /**
+     * A read-only view of the cars of all partitions, one partition after another.
+     */
+    private final class CarsView extends AbstractList<Car> implements RandomAccess {
+        @Override
+        public Car get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            int type = 0;
+            while (index >= partitions[type].size) {
+                index -= partitions[type].size;
+                type++;
+            }
+            return partitions[type].cars[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * A read-only view of the cars of one partition.
+     */
+    private static final class PartitionView extends AbstractList<Car> implements RandomAccess {
+        private final Partition partition;
+
+        PartitionView(Partition partition) {
+            this.partition = partition;
+        }
+
+        @Override
+        public Car get(int index) {
+            if (index < 0 || index >= partition.size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + partition.size);
+            }
+            return partition.cars[index];
+        }
+
+        @Override
+        public int size() {
+            return partition.size;
+        }
+    }
+}
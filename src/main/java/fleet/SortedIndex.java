@@ -0,0 +1,127 @@
+package fleet;
+
+/**
+ * An immutable index over one numeric column of a fleet. It keeps the values sorted in ascending order
+ * together with the fleet positions they came from, so range lookups take O(log N) binary searches.
+ * A segment tree of minimum positions over the sorted order answers "first car in fleet order within
+ * the range" in O(log N) as well.
+ */
+final class SortedIndex {
+    private final double[] keys;
+    private final int[] positions;
+
+    /**
+     * Segment tree of minimum positions; leaf {@code i} is stored at {@code minPositions[keys.length + i]}.
+     */
+    private final int[] minPositions;
+
+    /**
+     * Builds the index over the first {@code length} values of a column.
+     *
+     * @param values the column values, indexed by fleet position
+     * @param length the number of cars in the fleet
+     */
+    SortedIndex(double[] values, int length) {
+        positions = IndexSorter.order(values, length);
+        keys = new double[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = values[positions[i]];
+        }
+        minPositions = new int[2 * length];
+        System.arraycopy(positions, 0, minPositions, length, length);
+        for (int i = length - 1; i > 0; i--) {
+            minPositions[i] = Math.min(minPositions[2 * i], minPositions[2 * i + 1]);
+        }
+    }
+
+    /**
+     * Returns the first index in sorted order whose value is not less than {@code min}.
+     */
+    private int lowerBound(double min) {
+        int lo = 0, hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < min) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the first index in sorted order whose value is greater than {@code max}.
+     */
+    private int upperBound(double max) {
+        int lo = 0, hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] <= max) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Counts the values within the specified range.
+     *
+     * @param min the lower bound, inclusive
+     * @param max the upper bound, inclusive
+     * @return the number of values within the range
+     */
+    int count(double min, double max) {
+        if (!(min <= max)) {
+            return 0;
+        }
+        return Math.max(0, upperBound(max) - lowerBound(min));
+    }
+
+    /**
+     * Finds the smallest fleet position whose value lies within the specified range.
+     *
+     * @param min the lower bound, inclusive
+     * @param max the upper bound, inclusive
+     * @return the first fleet position within the range, or -1 if there is none
+     */
+    int firstPosition(double min, double max) {
+        if (!(min <= max)) {
+            return -1;
+        }
+        int result = Integer.MAX_VALUE;
+        for (int l = lowerBound(min) + keys.length, r = upperBound(max) + keys.length; l < r; l >>>= 1, r >>>= 1) {
+            if ((l & 1) == 1) {
+                result = Math.min(result, minPositions[l++]);
+            }
+            if ((r & 1) == 1) {
+                result = Math.min(result, minPositions[--r]);
+            }
+        }
+        return result == Integer.MAX_VALUE ? -1 : result;
+    }
+
+    /**
+     * Lists the fleet positions whose values lie within the specified range, in ascending order of value.
+     *
+     * @param min    the lower bound, inclusive
+     * @param max    the upper bound, inclusive
+     * @param offset the number of matches to skip
+     * @param limit  the maximum number of positions to return
+     * @return the fleet positions of the requested page of matches
+     */
+    int[] positions(double min, double max, int offset, int limit) {
+        if (!(min <= max)) {
+            return new int[0];
+        }
+        int first = lowerBound(min);
+        int last = Math.max(first, upperBound(max));
+        int from = (int) Math.min((long) first + offset, last);
+        int to = (int) Math.min((long) from + limit, last);
+        int[] result = new int[to - from];
+        System.arraycopy(positions, from, result, 0, result.length);
+        return result;
+    }
+}
@@ -1,23 +1,57 @@
 package fleet;
 
 import cars.Car;
+import cars.CarAttribute;
 import customExceptions.CarException;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * The {@code fleet.TaxiFleet} class represents a fleet of taxi cars. It contains methods for calculating the total cost
  * of the fleet, sorting the cars by fuel consumption, and finding a car within a specified speed range.
+ * <p>
+ * Cars can be added, removed and replaced in place; the array grows by half of its length when it is full, so
+ * adding is amortized O(1). A fleet always keeps at least one car. {@link #get(int)} and {@link #asList()} read
+ * the cars without copying them, and registered {@link FleetListener}s are notified of every change.
+ * <p>
+ * Any number of threads may read a fleet that is not being changed, including range queries that build indexes
+ * lazily. Changes, including sorting, need exclusive access: a fleet changed while other threads read it must be
+ * guarded externally, or served through a {@link VersionedFleet} instead.
  */
 public class TaxiFleet {
+    private static final FleetListener[] NO_LISTENERS = new FleetListener[0];
 
     /**
-     * An array of cars in the taxi fleet.
+     * An array of cars in the taxi fleet; only the first {@code size} elements are used.
      */
     private Car[] cars;
 
     /**
-     * Constructs a taxi fleet with the specified array of cars.
+     * The number of cars in the taxi fleet.
+     */
+    private int size;
+
+    /**
+     * Registered listeners; replaced on registration, so firing iterates a stable array.
+     */
+    private FleetListener[] listeners = NO_LISTENERS;
+
+    /**
+     * Sorted indexes over the attributes of the cars by attribute ordinal, each built on the first range query
+     * over its attribute and all dropped whenever the cars or their order change. The atomic array publishes an
+     * index built by one reading thread safely to the others.
+     */
+    private final AtomicReferenceArray<SortedIndex> indexes = new AtomicReferenceArray<>(CarAttribute.values().length);
+
+    /**
+     * Constructs a taxi fleet with the specified array of cars. The array is copied, so later changes to either
+     * do not affect the other.
      *
      * @param cars an array of cars in the taxi fleet
      */
@@ -25,15 +59,149 @@ public class TaxiFleet {
         if (cars == null || cars.length == 0) {
             throw new CarException("Invalid taxi fleet: must contain at least one car.");
         }
-        this.cars = cars;
+        this.cars = cars.clone();
+        this.size = cars.length;
     }
 
     /**
-     * Retrieves copy of cars array
+     * Retrieves copy of cars array. Prefer {@link #get(int)} or {@link #asList()}, which do not copy the cars.
      * @return copy of Cars array
      */
     public Car[] getCars() {
-        return cars.clone();
+        return Arrays.copyOf(cars, size);
+    }
+
+    /**
+     * Gets the car at the specified position.
+     *
+     * @param position the position of the car in the fleet
+     * @return the car at the specified position
+     */
+    public Car get(int position) {
+        return cars[Objects.checkIndex(position, size)];
+    }
+
+    /**
+     * Returns an unmodifiable view of the cars of the fleet. The view reads the fleet directly, so it reflects
+     * every later change and sort.
+     *
+     * @return the cars of the fleet in their current order
+     */
+    public List<Car> asList() {
+        return new CarsView();
+    }
+
+    /**
+     * Adds the specified car at the end of the fleet.
+     *
+     * @param car the car to add
+     */
+    public void add(Car car) {
+        checkCar(car);
+        if (size == cars.length) {
+            cars = Arrays.copyOf(cars, size + Math.max(1, size >> 1));
+        }
+        cars[size++] = car;
+        clearIndexes();
+        for (FleetListener listener : listeners) {
+            listener.carAdded(car);
+        }
+    }
+
+    /**
+     * Removes the car at the specified position. The cars after it move one position forward and keep their order.
+     *
+     * @param position the position of the car to remove
+     * @return the removed car
+     */
+    public Car remove(int position) {
+        Objects.checkIndex(position, size);
+        if (size == 1) {
+            throw new CarException("Invalid taxi fleet: must contain at least one car.");
+        }
+        Car removed = cars[position];
+        System.arraycopy(cars, position + 1, cars, position, size - position - 1);
+        cars[--size] = null;
+        clearIndexes();
+        for (FleetListener listener : listeners) {
+            listener.carRemoved(removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the first car of the fleet equal to the specified car.
+     *
+     * @param car the car to remove
+     * @return true if the fleet contained the car
+     */
+    public boolean remove(Car car) {
+        for (int i = 0; i < size; i++) {
+            if (cars[i].equals(car)) {
+                remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the car at the specified position with the specified car.
+     *
+     * @param position the position of the car to replace
+     * @param car      the new car
+     * @return the replaced car
+     */
+    public Car replace(int position, Car car) {
+        Objects.checkIndex(position, size);
+        checkCar(car);
+        Car replaced = cars[position];
+        cars[position] = car;
+        clearIndexes();
+        for (FleetListener listener : listeners) {
+            listener.carRemoved(replaced);
+            listener.carAdded(car);
+        }
+        return replaced;
+    }
+
+    private static void checkCar(Car car) {
+        if (car == null) {
+            throw new CarException("Invalid car: must not be null.");
+        }
+    }
+
+    /**
+     * Registers a listener notified of every car added to, removed from or replaced in this fleet; a replacement
+     * is reported as a removal followed by an addition. A listener registered several times is notified several
+     * times.
+     *
+     * @param listener the listener to register
+     */
+    public void addListener(FleetListener listener) {
+        Objects.requireNonNull(listener);
+        FleetListener[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+        newListeners[listeners.length] = listener;
+        listeners = newListeners;
+    }
+
+    /**
+     * Unregisters a listener registered by {@link #addListener(FleetListener)}.
+     *
+     * @param listener the listener to unregister
+     * @return true if the listener was registered
+     */
+    public boolean removeListener(FleetListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                FleetListener[] newListeners = new FleetListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, newListeners, 0, i);
+                System.arraycopy(listeners, i + 1, newListeners, i, newListeners.length - i);
+                listeners = newListeners;
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -42,14 +210,170 @@ public class TaxiFleet {
      * @return the total cost of the taxi fleet in dollars
      */
     public double calculateFleetCost() {
-        return Arrays.stream(cars).mapToDouble(Car::getPrice).sum();
+        return Arrays.stream(cars, 0, size).mapToDouble(Car::getPrice).sum();
     }
 
     /**
      * Sorts the cars in the taxi fleet by fuel consumption in ascending order.
      */
     public void sortByFuelConsumption() {
-        Arrays.sort(cars, (car1, car2) -> Double.compare(car1.getFuelConsumption(), car2.getFuelConsumption()));
+        sortBy(CarAttribute.FUEL_CONSUMPTION);
+    }
+
+    /**
+     * Sorts the cars in the taxi fleet in ascending order of the specified attributes: by the first attribute,
+     * then by the second one among cars with equal first attributes, and so on. Cars with equal values of all
+     * attributes keep their relative order.
+     * <p>
+     * The attribute values are read once into primitive arrays, the positions are radix sorted by them, and the
+     * resulting permutation is applied to the cars in place.
+     *
+     * @param attributes the attributes to sort by, most significant first
+     */
+    public void sortBy(CarAttribute... attributes) {
+        sortBy(attributes, false);
+    }
+
+    /**
+     * Sorts the cars like {@link #sortBy(CarAttribute...)}, splitting the work of large fleets over the
+     * common fork-join pool.
+     *
+     * @param attributes the attributes to sort by, most significant first
+     */
+    public void parallelSortBy(CarAttribute... attributes) {
+        sortBy(attributes, true);
+    }
+
+    /**
+     * Sorts the cars by the specified attributes.
+     *
+     * @param attributes the attributes to sort by, most significant first
+     * @param parallel   whether to sort on the common fork-join pool
+     */
+    private void sortBy(CarAttribute[] attributes, boolean parallel) {
+        if (attributes.length == 0) {
+            throw new CarException("Invalid sort: at least one attribute is required.");
+        }
+        double[][] keyColumns = new double[attributes.length][];
+        for (int a = 0; a < attributes.length; a++) {
+            double[] keys = new double[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = attributes[a].valueOf(cars[i]);
+            }
+            keyColumns[a] = keys;
+        }
+        IndexSorter.permute(cars, IndexSorter.order(keyColumns, size, parallel), size);
+        clearIndexes();
+    }
+
+    /**
+     * Returns the number of cars in the taxi fleet.
+     *
+     * @return the number of cars in the taxi fleet
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Lists the cars with the smallest values of the specified attribute, e.g. the most fuel-efficient ones,
+     * without reordering the fleet. A bounded heap keeps the selection at O(N log k).
+     *
+     * @param attribute the attribute to rank by
+     * @param k         the maximum number of cars to list
+     * @return at most {@code k} cars in ascending order of the attribute
+     */
+    public List<Car> lowest(CarAttribute attribute, int k) {
+        return top(attribute, k, 1);
+    }
+
+    /**
+     * Lists the cars with the largest values of the specified attribute, e.g. the fastest ones,
+     * without reordering the fleet. A bounded heap keeps the selection at O(N log k).
+     *
+     * @param attribute the attribute to rank by
+     * @param k         the maximum number of cars to list
+     * @return at most {@code k} cars in descending order of the attribute
+     */
+    public List<Car> highest(CarAttribute attribute, int k) {
+        return top(attribute, k, -1);
+    }
+
+    /**
+     * Selects the cars with the smallest values of the attribute multiplied by the specified sign.
+     */
+    private List<Car> top(CarAttribute attribute, int k, int sign) {
+        TopK heap = new TopK(Math.min(k, size));
+        for (int i = 0; i < size; i++) {
+            heap.offer(sign * attribute.valueOf(cars[i]), i);
+        }
+        List<Car> result = new ArrayList<>();
+        for (int position : heap.toSortedPositions()) {
+            result.add(cars[position]);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the car at the specified position without copying the cars array.
+     *
+     * @param position the position of the car in the fleet
+     * @return the car at the specified position
+     */
+    Car carAt(int position) {
+        return cars[position];
+    }
+
+    /**
+     * Gets the index over the specified attribute, building it if the cars changed since it was last built.
+     *
+     * @param attribute the indexed attribute
+     * @return the index over the current order of the cars
+     */
+    SortedIndex index(CarAttribute attribute) {
+        int slot = attribute.ordinal();
+        SortedIndex index = indexes.get(slot);
+        if (index != null) {
+            return index;
+        }
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = attribute.valueOf(cars[i]);
+        }
+        index = new SortedIndex(values, size);
+        // Readers racing to build the same index all use the first one published
+        if (indexes.compareAndSet(slot, null, index)) {
+            return index;
+        }
+        SortedIndex published = indexes.get(slot);
+        return published != null ? published : index;
+    }
+
+    /**
+     * Drops all indexes after a change to the cars or their order.
+     */
+    private void clearIndexes() {
+        for (int i = 0; i < indexes.length(); i++) {
+            indexes.set(i, null);
+        }
+    }
+
+    /**
+     * Computes statistics of every numeric attribute of the cars in parallel.
+     *
+     * @return the statistics of the fleet
+     */
+    public FleetStatistics statistics() {
+        return FleetStatistics.of(this);
+    }
+
+    /**
+     * Starts a query over the cars of the fleet that may combine range conditions on several attributes.
+     *
+     * @return a new query without conditions
+     */
+    public FleetQuery query() {
+        return new FleetQuery(this);
     }
 
     /**
@@ -57,12 +381,68 @@ public class TaxiFleet {
      *
      * @param minSpeed the minimum speed of the desired car
      * @param maxSpeed the maximum speed of the desired car
-     * @return a car within the specified speed range, or {@code null} if no such car is found
+     * @return the first car of the fleet within the specified speed range, or {@code null} if no such car is found
      */
     public Car findCarBySpeedRange(double minSpeed, double maxSpeed) {
-        return Arrays.stream(cars)
-                .filter(car -> car.getSpeed() >= minSpeed && car.getSpeed() <= maxSpeed)
-                .findFirst()
-                .orElse(null);
+        int position = index(CarAttribute.SPEED).firstPosition(minSpeed, maxSpeed);
+        return position < 0 ? null : cars[position];
+    }
+
+    /**
+     * Finds all cars within the specified speed range.
+     *
+     * @param minSpeed the minimum speed of the desired cars
+     * @param maxSpeed the maximum speed of the desired cars
+     * @return the cars within the specified speed range, in ascending order of speed
+     */
+    public List<Car> findCarsBySpeedRange(double minSpeed, double maxSpeed) {
+        return findCarsBySpeedRange(minSpeed, maxSpeed, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds one page of the cars within the specified speed range.
+     *
+     * @param minSpeed the minimum speed of the desired cars
+     * @param maxSpeed the maximum speed of the desired cars
+     * @param offset   the number of matching cars to skip
+     * @param limit    the maximum number of cars to return
+     * @return the requested page of cars within the specified speed range, in ascending order of speed
+     */
+    public List<Car> findCarsBySpeedRange(double minSpeed, double maxSpeed, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new CarException("Invalid page: offset and limit must be non-negative.");
+        }
+        int[] positions = index(CarAttribute.SPEED).positions(minSpeed, maxSpeed, offset, limit);
+        List<Car> result = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            result.add(cars[position]);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the cars within the specified speed range.
+     *
+     * @param minSpeed the minimum speed of the counted cars
+     * @param maxSpeed the maximum speed of the counted cars
+     * @return the number of cars within the specified speed range
+     */
+    public int countCarsBySpeedRange(double minSpeed, double maxSpeed) {
+        return index(CarAttribute.SPEED).count(minSpeed, maxSpeed);
+    }
+
+    /**
+     * A read-only view of the cars of the fleet.
+     */
+    private final class CarsView extends AbstractList<Car> implements RandomAccess {
+        @Override
+        public Car get(int index) {
+            return TaxiFleet.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
     }
 }
@@ -0,0 +1,99 @@
+package fleet;
+
+import customExceptions.CarException;
+
+/**
+ * A bounded max-heap that keeps the {@code k} smallest keys offered to it together with their positions.
+ * Every offer takes O(log k), so selecting the best {@code k} of {@code N} cars takes O(N log k) and O(k)
+ * memory instead of sorting all of them. Among equal keys, earlier positions are preferred.
+ */
+final class TopK {
+    private final double[] keys;
+    private final int[] positions;
+    private int size;
+
+    /**
+     * Constructs an empty heap keeping at most {@code k} entries.
+     *
+     * @param k the number of smallest keys to keep
+     */
+    TopK(int k) {
+        if (k < 0) {
+            throw new CarException("Invalid top-k size: must be non-negative.");
+        }
+        keys = new double[k];
+        positions = new int[k];
+    }
+
+    /**
+     * Checks whether the entry {@code (key1, position1)} ranks after {@code (key2, position2)}.
+     */
+    private static boolean after(double key1, int position1, double key2, int position2) {
+        int c = Double.compare(key1, key2);
+        return c > 0 || (c == 0 && position1 > position2);
+    }
+
+    /**
+     * Offers a key; it is kept if it ranks among the {@code k} smallest keys seen so far.
+     *
+     * @param key      the key
+     * @param position the position the key belongs to
+     */
+    void offer(double key, int position) {
+        if (size < keys.length) {
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!after(key, position, keys[parent], positions[parent])) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                positions[i] = positions[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            positions[i] = position;
+        } else if (size > 0 && after(keys[0], positions[0], key, position)) {
+            siftDown(key, position, size);
+        }
+    }
+
+    /**
+     * Places an entry at the root of the heap of the specified size and sifts it down.
+     */
+    private void siftDown(double key, int position, int heapSize) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && after(keys[child + 1], positions[child + 1], keys[child], positions[child])) {
+                child++;
+            }
+            if (!after(keys[child], positions[child], key, position)) {
+                break;
+            }
+            keys[i] = keys[child];
+            positions[i] = positions[child];
+            i = child;
+        }
+        keys[i] = key;
+        positions[i] = position;
+    }
+
+    /**
+     * Drains the heap.
+     *
+     * @return the kept positions ordered from the smallest key to the largest one
+     */
+    int[] toSortedPositions() {
+        int[] result = new int[size];
+        for (int n = size; n > 0; n--) {
+            result[n - 1] = positions[0];
+            siftDown(keys[n - 1], positions[n - 1], n - 1);
+        }
+        size = 0;
+        return result;
+    }
+}
@@ -0,0 +1,127 @@
+package fleet;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The {@link ColumnKernels} implemented with the incubating Vector API. Every loop processes as many doubles per
+ * instruction as the preferred vector shape of the CPU holds and finishes the tail with scalar code.
+ * Constructing this class fails with a {@link LinkageError} when the {@code jdk.incubator.vector} module is not
+ * resolved, which {@link ColumnKernels#get()} treats as the signal to stay scalar.
+ * <p>
+ * Sums are accumulated lane by lane, so their rounding may differ from the scalar loop in the last bits.
+ */
+final class VectorColumnKernels extends ColumnKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    boolean isVectorized() {
+        return true;
+    }
+
+    @Override
+    double sum(double[] column, int length) {
+        DoubleVector sums = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            sums = sums.add(DoubleVector.fromArray(SPECIES, column, i));
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += column[i];
+        }
+        return sum;
+    }
+
+    @Override
+    double min(double[] column, int length) {
+        if (length == 0) {
+            return Double.NaN;
+        }
+        DoubleVector mins = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            mins = mins.min(DoubleVector.fromArray(SPECIES, column, i));
+        }
+        double min = mins.reduceLanes(VectorOperators.MIN);
+        for (; i < length; i++) {
+            min = Math.min(min, column[i]);
+        }
+        return min;
+    }
+
+    @Override
+    double max(double[] column, int length) {
+        if (length == 0) {
+            return Double.NaN;
+        }
+        DoubleVector maxs = DoubleVector.broadcast(SPECIES, Double.NEGATIVE_INFINITY);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            maxs = maxs.max(DoubleVector.fromArray(SPECIES, column, i));
+        }
+        double max = maxs.reduceLanes(VectorOperators.MAX);
+        for (; i < length; i++) {
+            max = Math.max(max, column[i]);
+        }
+        return max;
+    }
+
+    private static VectorMask<Double> inRange(double[] column, int i, double min, double max) {
+        DoubleVector values = DoubleVector.fromArray(SPECIES, column, i);
+        return values.compare(VectorOperators.GE, min).and(values.compare(VectorOperators.LE, max));
+    }
+
+    @Override
+    int indexOfRange(double[] column, int length, double min, double max) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            VectorMask<Double> mask = inRange(column, i, min, max);
+            if (mask.anyTrue()) {
+                return i + mask.firstTrue();
+            }
+        }
+        for (; i < length; i++) {
+            double value = column[i];
+            if (value >= min && value <= max) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    int countInRange(double[] column, int length, double min, double max) {
+        int count = 0;
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            count += inRange(column, i, min, max).trueCount();
+        }
+        for (; i < length; i++) {
+            double value = column[i];
+            if (value >= min && value <= max) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    long[] rangeMask(double[] column, int length, double min, double max) {
+        long[] words = new long[(length + 63) >>> 6];
+        int i = 0;
+        // The lane count is a power of two of at most 64 and i is a multiple of it, so lanes never straddle words
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            words[i >>> 6] |= inRange(column, i, min, max).toLong() << i;
+        }
+        for (; i < length; i++) {
+            double value = column[i];
+            if (value >= min && value <= max) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,126 @@
+package fleet;
+
+import cars.Car;
+import cars.CarAttribute;
+import customExceptions.CarException;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * The {@code fleet.VersionedFleet} class is a fleet shared between threads that are reading it and threads that
+ * are changing it. It holds the current {@link FleetVersion}. Readers take that version with {@link #current()}
+ * and keep seeing it unchanged, however long they use it. Writers build the next version and publish it
+ * atomically, so a reader never sees a half-applied change such as a partly sorted fleet.
+ * <p>
+ * Neither readers nor writers lock. A writer that loses a race with another writer builds its change again on
+ * top of the newer version, so no change is lost. Versions share their storage, so changing one car does not
+ * copy the fleet.
+ */
+public class VersionedFleet {
+    private final AtomicReference<FleetVersion> current;
+
+    /**
+     * Constructs an empty versioned fleet.
+     */
+    public VersionedFleet() {
+        current = new AtomicReference<>(FleetVersion.empty());
+    }
+
+    /**
+     * Constructs a versioned fleet holding the specified cars.
+     *
+     * @param cars an array of cars
+     */
+    public VersionedFleet(Car[] cars) {
+        if (cars == null) {
+            throw new CarException("Invalid fleet: cars must not be null.");
+        }
+        current = new AtomicReference<>(FleetVersion.of(cars));
+    }
+
+    /**
+     * Constructs a versioned fleet holding the cars of the specified taxi fleet.
+     *
+     * @param taxiFleet the taxi fleet to convert
+     */
+    public VersionedFleet(TaxiFleet taxiFleet) {
+        this(taxiFleet.getCars());
+    }
+
+    /**
+     * Gets the latest published version.
+     *
+     * @return the current version
+     */
+    public FleetVersion current() {
+        return current.get();
+    }
+
+    /**
+     * Publishes the version computed by the specified function from the current one. If another writer
+     * publishes first, the function is applied again to the newer version, so it must not have side effects.
+     *
+     * @param change the function computing the next version
+     * @return the published version
+     */
+    public FleetVersion update(UnaryOperator<FleetVersion> change) {
+        while (true) {
+            FleetVersion base = current.get();
+            FleetVersion next = change.apply(base);
+            if (next == base || current.compareAndSet(base, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Adds the specified car at the end of the fleet.
+     *
+     * @param car the car to add
+     * @return the published version
+     */
+    public FleetVersion add(Car car) {
+        return update(version -> version.withAdded(car));
+    }
+
+    /**
+     * Replaces the car at the specified position.
+     *
+     * @param position the position of the car to replace
+     * @param car      the new car
+     * @return the published version
+     */
+    public FleetVersion replace(int position, Car car) {
+        return update(version -> version.withReplaced(position, car));
+    }
+
+    /**
+     * Removes the car at the specified position.
+     *
+     * @param position the position of the car to remove
+     * @return the published version
+     */
+    public FleetVersion remove(int position) {
+        return update(version -> version.withRemoved(position));
+    }
+
+    /**
+     * Sorts the cars in ascending order of the specified attributes.
+     *
+     * @param attributes the attributes to sort by, most significant first
+     * @return the published version
+     */
+    public FleetVersion sortBy(CarAttribute... attributes) {
+        return update(version -> version.sortedBy(attributes));
+    }
+
+    /**
+     * Sorts the cars by fuel consumption in ascending order.
+     *
+     * @return the published version
+     */
+    public FleetVersion sortByFuelConsumption() {
+        return sortBy(CarAttribute.FUEL_CONSUMPTION);
+    }
+}
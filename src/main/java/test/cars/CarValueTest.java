@@ -0,0 +1,65 @@
+package test.cars;
+
+import cars.Car;
+import cars.CarType;
+import cars.CarValue;
+import cars.ElectricCar;
+import cars.Sedan;
+import customExceptions.CarException;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CarValueTest {
+
+    @Test
+    void testValueOfCar() {
+        Car sedan = new Sedan("Model1", 10.0, 100.0, 20000.0);
+        Car electricCar = new ElectricCar("Model2", 50.0, 150.0, 40000.0);
+
+        CarValue sedanValue = CarValue.of(sedan);
+        CarValue electricValue = CarValue.of(electricCar);
+
+        assertEquals(CarType.SEDAN, sedanValue.getType());
+        assertEquals("Model1", sedanValue.getModel());
+        assertEquals(0.0, sedanValue.getKWatt(), 0.001);
+        assertEquals(50.0, electricValue.getKWatt(), 0.001);
+        assertEquals(sedan, sedanValue.toCar());
+        assertEquals(electricCar, electricValue.toCar());
+    }
+
+    @Test
+    void testEqualsAndHashCode() {
+        CarValue value1 = new CarValue(CarType.CAR, "Model1", 10.0, 100.0, 20000.0, 0.0);
+        CarValue value2 = new CarValue(CarType.CAR, "Model1", 10.0, 100.0, 20000.0, 5.0);
+        CarValue sedanValue = new CarValue(CarType.SEDAN, "Model1", 10.0, 100.0, 20000.0, 0.0);
+
+        assertEquals(value1, value2);
+        assertEquals(value1.hashCode(), value2.hashCode());
+        assertNotEquals(value1, sedanValue);
+        assertNotEquals(value1, new CarValue(CarType.CAR, "Model1", 10.0, 100.0, 20001.0, 0.0));
+
+        Set<CarValue> set = new HashSet<>();
+        set.add(value1);
+        set.add(value2);
+        set.add(sedanValue);
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void testCachedCarHashCode() {
+        Car car = new Car("Model1", 10.0, 100.0, 20000.0);
+        assertEquals(car.hashCode(), new Car("Model1", 10.0, 100.0, 20000.0).hashCode());
+        assertNotEquals(car, new Sedan("Model1", 10.0, 100.0, 20000.0));
+    }
+
+    @Test
+    void testInvalidCarValue() {
+        assertThrows(CarException.class, () -> new CarValue(null, "Model1", 10.0, 100.0, 20000.0, 0.0));
+        assertThrows(CarException.class, () -> new CarValue(CarType.SUV, "Model1", -1.0, 100.0, 20000.0, 0.0));
+        assertThrows(CarException.class, () -> new CarValue(CarType.ELECTRIC, "Model1", 0.0, 100.0, 20000.0, -1.0));
+    }
+}
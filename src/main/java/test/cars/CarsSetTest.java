@@ -1,13 +1,18 @@
 package test.cars;
 
 import cars.Car;
+import customExceptions.CarException;
 import fleet.CarsSet;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -235,6 +240,267 @@ class CarsSetTest {
         assertFalse(carsSet.contains(car2));
         assertTrue(carsSet.contains(car3));
     }
-}
 
+    @Test
+    void testIterationKeepsInsertionOrderAfterRemove() {
+        CarsSet carsSet = new CarsSet();
+        Car car1 = new Car("Model1", 10.0, 100.0, 20000.0);
+        Car car2 = new Car("Model2", 12.0, 120.0, 25000.0);
+        Car car3 = new Car("Model3", 15.0, 150.0, 30000.0);
+        carsSet.addAll(Arrays.asList(car1, car2, car3));
+
+        carsSet.remove(car2);
+        carsSet.add(car2);
+
+        assertArrayEquals(new Car[]{car1, car3, car2}, carsSet.toArray(new Car[0]));
+    }
+
+    @Test
+    void testAddAndRemoveManyCars() {
+        CarsSet carsSet = new CarsSet();
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(carsSet.add(new Car("Model" + i, 10.0, 100.0 + i, 20000.0)));
+        }
+        assertEquals(10000, carsSet.size());
+        for (int i = 0; i < 10000; i += 2) {
+            assertTrue(carsSet.remove(new Car("Model" + i, 10.0, 100.0 + i, 20000.0)));
+        }
+        assertEquals(5000, carsSet.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i % 2 == 1, carsSet.contains(new Car("Model" + i, 10.0, 100.0 + i, 20000.0)));
+        }
+
+        int expected = 1;
+        for (Car car : carsSet) {
+            assertEquals("Model" + expected, car.getModel());
+            expected += 2;
+        }
+    }
+
+    @Test
+    void testAddNullIsRejected() {
+        CarsSet carsSet = new CarsSet();
+        assertThrows(NullPointerException.class, () -> carsSet.add(null));
+        assertFalse(carsSet.contains(null));
+    }
+
+    @Test
+    void testSetAlgebra() {
+        CarsSet a = new CarsSet();
+        CarsSet b = new CarsSet();
+        for (int i = 0; i < 1000; i++) {
+            a.add(new Car("Model" + i, 10.0, 100.0, 20000.0));
+            b.add(new Car("Model" + (i + 600), 10.0, 100.0, 20000.0));
+        }
+        a.remove(new Car("Model0", 10.0, 100.0, 20000.0));
+
+        CarsSet union = CarsSet.union(a, b);
+        CarsSet intersection = CarsSet.intersection(a, b);
+        CarsSet difference = CarsSet.difference(a, b);
+        CarsSet symmetricDifference = CarsSet.symmetricDifference(a, b);
+
+        assertEquals(1599, union.size());
+        assertEquals(400, intersection.size());
+        assertEquals(599, difference.size());
+        assertEquals(1199, symmetricDifference.size());
+        assertEquals("Model1", union.iterator().next().getModel());
+        assertEquals("Model600", intersection.iterator().next().getModel());
+        assertTrue(symmetricDifference.contains(new Car("Model1599", 10.0, 100.0, 20000.0)));
+        assertFalse(symmetricDifference.contains(new Car("Model700", 10.0, 100.0, 20000.0)));
+        assertEquals(999, a.size());
+        assertEquals(1000, b.size());
+    }
+
+    @Test
+    void testBulkOperationsWithCarsSet() {
+        CarsSet a = new CarsSet();
+        CarsSet b = new CarsSet();
+        for (int i = 0; i < 100; i++) {
+            a.add(new Car("Model" + i, 10.0, 100.0, 20000.0));
+            b.add(new Car("Model" + (i + 50), 10.0, 100.0, 20000.0));
+        }
+        CarsSet added = new CarsSet(a);
+        assertTrue(added.addAll(b));
+        assertFalse(added.addAll(a));
+        assertEquals(150, added.size());
+
+        CarsSet retained = new CarsSet(a);
+        assertTrue(retained.retainAll(b));
+        assertEquals(50, retained.size());
+
+        CarsSet removed = new CarsSet(a);
+        assertTrue(removed.removeAll(b));
+        assertEquals(50, removed.size());
+        assertTrue(removed.contains(new Car("Model0", 10.0, 100.0, 20000.0)));
+    }
+
+    @Test
+    void testSpliteratorAndParallelStream() {
+        CarsSet carsSet = new CarsSet();
+        for (int i = 0; i < 100_000; i++) {
+            carsSet.add(new Car("Model" + i, 10.0, 100.0 + i % 100, 1.0));
+        }
+        Spliterator<Car> spliterator = carsSet.spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.DISTINCT | Spliterator.NONNULL));
+        assertEquals(100_000, spliterator.getExactSizeIfKnown());
+        Spliterator<Car> prefix = spliterator.trySplit();
+        assertEquals(50_000, prefix.estimateSize());
+        assertEquals(50_000, spliterator.estimateSize());
+
+        assertEquals(100_000.0, carsSet.parallelStream().mapToDouble(Car::getPrice).sum(), 0.001);
+        assertEquals(100_000, carsSet.parallelStream().collect(Collectors.toSet()).size());
+
+        carsSet.remove(new Car("Model7", 10.0, 107.0, 1.0));
+        assertFalse(carsSet.spliterator().hasCharacteristics(Spliterator.SIZED));
+        assertEquals(99_999, carsSet.parallelStream().count());
+        int[] count = new int[1];
+        carsSet.forEach(car -> count[0]++);
+        assertEquals(99_999, count[0]);
+    }
 
+    @Test
+    void testIteratorIsFailFast() {
+        CarsSet carsSet = new CarsSet();
+        for (int i = 0; i < 10; i++) {
+            carsSet.add(new Car("Model" + i, 10.0, 100.0, 20000.0));
+        }
+        Iterator<Car> iterator = carsSet.iterator();
+        iterator.next();
+        carsSet.add(new Car("Model10", 10.0, 100.0, 20000.0));
+        assertThrows(ConcurrentModificationException.class, iterator::hasNext);
+        assertThrows(ConcurrentModificationException.class,
+                () -> carsSet.forEach(car -> carsSet.remove(new Car("Model3", 10.0, 100.0, 20000.0))));
+    }
+
+    @Test
+    void testIteratorRemove() {
+        CarsSet carsSet = new CarsSet();
+        for (int i = 0; i < 1000; i++) {
+            carsSet.add(new Car("Model" + i, 10.0, 100.0 + i, 20000.0));
+        }
+        Iterator<Car> iterator = carsSet.iterator();
+        assertThrows(IllegalStateException.class, iterator::remove);
+        while (iterator.hasNext()) {
+            if (iterator.next().getSpeed() % 3 != 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(333, carsSet.size());
+        assertFalse(carsSet.contains(new Car("Model1", 10.0, 101.0, 20000.0)));
+        assertTrue(carsSet.contains(new Car("Model998", 10.0, 1098.0, 20000.0)));
+        assertEquals(333, carsSet.stream().count());
+        assertTrue(carsSet.add(new Car("Model1", 10.0, 101.0, 20000.0)));
+        assertEquals(334, carsSet.size());
+    }
+
+    @Test
+    void testSnapshot() {
+        CarsSet carsSet = new CarsSet();
+        for (int i = 0; i < 100; i++) {
+            carsSet.add(new Car("Model" + i, 10.0, 100.0, 20000.0));
+        }
+        CarsSet snapshot = carsSet.snapshot();
+        int iterated = 0;
+        for (Car car : snapshot) {
+            carsSet.remove(car);
+            carsSet.add(new Car(car.getModel() + "-new", 10.0, 100.0, 20000.0));
+            iterated++;
+        }
+        assertEquals(100, iterated);
+        assertEquals(100, snapshot.size());
+        assertTrue(snapshot.contains(new Car("Model5", 10.0, 100.0, 20000.0)));
+        assertFalse(carsSet.contains(new Car("Model5", 10.0, 100.0, 20000.0)));
+        assertTrue(carsSet.contains(new Car("Model5-new", 10.0, 100.0, 20000.0)));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(new Car("Model", 1.0, 1.0, 1.0)));
+        assertThrows(UnsupportedOperationException.class, snapshot::clear);
+        assertSame(snapshot, snapshot.snapshot());
+    }
+
+    @Test
+    void testNoOpWritesAfterSnapshot() {
+        CarsSet carsSet = new CarsSet();
+        for (int i = 0; i < 10; i++) {
+            carsSet.add(new Car("Model" + i, 10.0, 100.0, 20000.0));
+        }
+        CarsSet snapshot = carsSet.snapshot();
+        Iterator<Car> iterator = carsSet.iterator();
+        iterator.next();
+
+        assertFalse(carsSet.add(new Car("Model1", 10.0, 100.0, 20000.0)));
+        assertFalse(carsSet.remove(null));
+        assertFalse(carsSet.remove(new Car("Absent", 10.0, 100.0, 20000.0)));
+        assertFalse(carsSet.addAll(List.of(new Car("Model2", 10.0, 100.0, 20000.0))));
+        assertFalse(carsSet.addAll(snapshot));
+        assertFalse(carsSet.removeIf(car -> car.getSpeed() > 500.0));
+        assertFalse(carsSet.removeAll(List.of(new Car("Absent", 10.0, 100.0, 20000.0))));
+        assertFalse(carsSet.retainAll(snapshot));
+        // None of the no-ops counts as a modification
+        assertDoesNotThrow(iterator::next);
+
+        // Holes before the first removed element are closed as well
+        carsSet.remove(new Car("Model0", 10.0, 100.0, 20000.0));
+        assertTrue(carsSet.removeIf(car -> car.getModel().equals("Model5")));
+        assertTrue(carsSet.removeAll(List.of(new Car("Model7", 10.0, 100.0, 20000.0))));
+        assertEquals(7, carsSet.size());
+        assertEquals(7, carsSet.stream().count());
+        assertEquals(10, snapshot.size());
+        assertTrue(snapshot.contains(new Car("Model5", 10.0, 100.0, 20000.0)));
+    }
+
+    @Test
+    void testCapacityPolicy() {
+        CarsSet carsSet = new CarsSet(100);
+        assertEquals(100, carsSet.capacity());
+        for (int i = 0; i < 10_000; i++) {
+            carsSet.add(new Car("Model" + i, 10.0, 100.0, 20000.0));
+        }
+        assertTrue(carsSet.capacity() >= 10_000);
+
+        for (int i = 0; i < 9_990; i++) {
+            carsSet.remove(new Car("Model" + i, 10.0, 100.0, 20000.0));
+        }
+        assertEquals(10, carsSet.size());
+        assertEquals(100, carsSet.capacity());
+        assertTrue(carsSet.contains(new Car("Model9995", 10.0, 100.0, 20000.0)));
+
+        carsSet.trimToSize();
+        assertEquals(10, carsSet.capacity());
+        assertTrue(carsSet.add(new Car("Model", 10.0, 100.0, 20000.0)));
+        assertEquals(11, carsSet.size());
+
+        for (int i = 0; i < 10_000; i++) {
+            carsSet.add(new Car("Model" + i, 10.0, 100.0, 20000.0));
+        }
+        carsSet.clear();
+        assertEquals(100, carsSet.capacity());
+        assertTrue(carsSet.isEmpty());
+    }
+
+    @Test
+    void testExpectedSizeAndPresizing() {
+        CarsSet carsSet = CarsSet.withExpectedSize(1000);
+        assertEquals(1000, carsSet.capacity());
+        for (int i = 0; i < 1000; i++) {
+            carsSet.add(new Car("Model" + i, 10.0, 100.0, 20000.0));
+        }
+        assertEquals(1000, carsSet.capacity());
+        carsSet.removeIf(car -> !car.getModel().equals("Model0"));
+        assertEquals(1, carsSet.size());
+        assertTrue(carsSet.capacity() < 1000);
+
+        java.util.List<Car> cars = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            cars.add(new Car("Model" + i, 10.0, 100.0, 20000.0));
+        }
+        assertEquals(500, new CarsSet(cars).capacity());
+        CarsSet noShrink = new CarsSet(10, 2.0, 0.0);
+        noShrink.addAll(cars);
+        noShrink.clear();
+        assertEquals(10, noShrink.capacity());
+
+        assertThrows(CarException.class, () -> new CarsSet(0));
+        assertThrows(CarException.class, () -> new CarsSet(10, 1.0, 0.25));
+        assertThrows(CarException.class, () -> new CarsSet(10, 1.5, 0.5));
+        assertThrows(CarException.class, () -> CarsSet.withExpectedSize(-1));
+    }
+}
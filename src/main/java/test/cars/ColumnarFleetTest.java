@@ -0,0 +1,110 @@
+package test.cars;
+
+import cars.Car;
+import cars.CarAttribute;
+import cars.CarType;
+import cars.ElectricCar;
+import cars.SUV;
+import cars.Sedan;
+import customExceptions.CarException;
+import fleet.ColumnarFleet;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarFleetTest {
+
+    @Test
+    void testColumnarFleetConstructorWithNullCars() {
+        assertThrows(CarException.class, () -> new ColumnarFleet((Car[]) null));
+    }
+
+    @Test
+    void testGetCarRestoresTypeAndAttributes() {
+        Car[] cars = {
+                new Sedan("Model1", 10.0, 100.0, 20000.0),
+                new SUV("Model2", 12.0, 120.0, 25000.0),
+                new ElectricCar("Model3", 50.0, 150.0, 40000.0),
+                new Car("Model1", 8.0, 90.0, 15000.0)
+        };
+        ColumnarFleet fleet = new ColumnarFleet(cars);
+
+        assertEquals(4, fleet.size());
+        assertArrayEquals(cars, fleet.toArray());
+        assertEquals(CarType.ELECTRIC, fleet.getType(2));
+        assertEquals(50.0, fleet.getKWatt(2), 0.001);
+        assertEquals(50.0, ((ElectricCar) fleet.getCar(2)).getWatt(), 0.001);
+    }
+
+    @Test
+    void testCalculateFleetCost() {
+        ColumnarFleet fleet = new ColumnarFleet(new Car[]{
+                new Car("Model1", 10.0, 100.0, 20000.0),
+                new Car("Model2", 12.0, 120.0, 25000.0)
+        });
+        assertEquals(45000.0, fleet.calculateFleetCost(), 0.001);
+    }
+
+    @Test
+    void testSortByFuelConsumptionMovesWholeRows() {
+        ColumnarFleet fleet = new ColumnarFleet(new Car[]{
+                new Car("Model1", 12.0, 100.0, 20000.0),
+                new SUV("Model2", 15.0, 110.0, 30000.0),
+                new Car("Model3", 10.0, 120.0, 25000.0),
+                new ElectricCar("Model4", 40.0, 130.0, 45000.0)
+        });
+        fleet.sortByFuelConsumption();
+
+        assertEquals("Model4", fleet.getModel(0));
+        assertEquals(CarType.ELECTRIC, fleet.getType(0));
+        assertEquals("Model3", fleet.getModel(1));
+        assertEquals(120.0, fleet.getSpeed(1), 0.001);
+        assertEquals("Model1", fleet.getModel(2));
+        assertEquals("Model2", fleet.getModel(3));
+        assertEquals(30000.0, fleet.getPrice(3), 0.001);
+    }
+
+    @Test
+    void testFindCarBySpeedRange() {
+        ColumnarFleet fleet = new ColumnarFleet(new Car[]{
+                new Car("Model1", 10.0, 100.0, 20000.0),
+                new Car("Model2", 12.0, 120.0, 25000.0)
+        });
+        assertEquals(1, fleet.indexOfSpeedRange(110.0, 130.0));
+        assertEquals("Model2", fleet.findCarBySpeedRange(110.0, 130.0).getModel());
+        assertNull(fleet.findCarBySpeedRange(130.0, 140.0));
+    }
+
+    @Test
+    void testAggregatesAndRangeScans() {
+        ColumnarFleet fleet = new ColumnarFleet();
+        assertTrue(Double.isNaN(fleet.min(CarAttribute.PRICE)));
+        assertEquals(-1, fleet.indexOfSpeedRange(0.0, 1000.0));
+
+        int count = 1003;
+        double expectedCost = 0;
+        for (int i = 0; i < count; i++) {
+            fleet.add(new Car("Model" + i % 10, i % 20, i % 250, 1000.0 + i));
+            expectedCost += 1000.0 + i;
+        }
+        assertEquals(expectedCost, fleet.calculateFleetCost(), 1e-6);
+        assertEquals(1000.0, fleet.min(CarAttribute.PRICE), 0.001);
+        assertEquals(2002.0, fleet.max(CarAttribute.PRICE), 0.001);
+        assertEquals(249.0, fleet.max(CarAttribute.SPEED), 0.001);
+        assertEquals(0.0, fleet.max(CarAttribute.KWATT), 0.001);
+        assertEquals(2, fleet.indexOfSpeedRange(2.0, 2.5));
+        assertEquals(1002, fleet.countInRange(CarAttribute.PRICE, 0.0, 2001.0));
+        assertEquals(1, fleet.countInRange(CarAttribute.PRICE, 2001.5, 3000.0));
+        assertEquals(5, fleet.countInRange(CarAttribute.SPEED, 2.0, 2.0));
+
+        BitSet slow = fleet.rangeMask(CarAttribute.SPEED, 0.0, 9.0);
+        BitSet cheap = fleet.rangeMask(CarAttribute.PRICE, 0.0, 1500.0);
+        assertEquals(fleet.countInRange(CarAttribute.SPEED, 0.0, 9.0), slow.cardinality());
+        assertTrue(slow.get(1002));
+        slow.and(cheap);
+        assertEquals(21, slow.cardinality());
+        assertFalse(slow.get(1000));
+    }
+}
@@ -0,0 +1,145 @@
+package test.cars;
+
+import cars.Car;
+import fleet.ConcurrentCarsSet;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentCarsSetTest {
+
+    @Test
+    void testAddContainsRemove() {
+        ConcurrentCarsSet carsSet = new ConcurrentCarsSet();
+        Car car1 = new Car("Model1", 10.0, 100.0, 20000.0);
+        Car car2 = new Car("Model2", 12.0, 120.0, 25000.0);
+
+        assertTrue(carsSet.add(car1));
+        assertFalse(carsSet.add(new Car("Model1", 10.0, 100.0, 20000.0)));
+        assertTrue(carsSet.add(car2));
+        assertEquals(2, carsSet.size());
+        assertTrue(carsSet.contains(car1));
+
+        assertTrue(carsSet.remove(car1));
+        assertFalse(carsSet.remove(car1));
+        assertFalse(carsSet.contains(car1));
+        assertEquals(1, carsSet.size());
+        assertThrows(NullPointerException.class, () -> carsSet.add(null));
+    }
+
+    @Test
+    void testConcurrentAddAndRemove() throws Exception {
+        ConcurrentCarsSet carsSet = new ConcurrentCarsSet(8);
+        int threads = 8;
+        int perThread = 5000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    List<Car> batch = new ArrayList<>();
+                    for (int i = 0; i < perThread; i++) {
+                        Car car = new Car("Model" + thread, 10.0, i, 20000.0);
+                        if (i % 2 == 0) {
+                            carsSet.add(car);
+                        } else {
+                            batch.add(car);
+                        }
+                    }
+                    carsSet.addAll(batch);
+                    carsSet.removeAll(batch.subList(0, perThread / 4));
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int expected = threads * (perThread - perThread / 4);
+        assertEquals(expected, carsSet.size());
+        Set<Car> iterated = new HashSet<>();
+        for (Car car : carsSet) {
+            assertTrue(iterated.add(car));
+        }
+        assertEquals(expected, iterated.size());
+    }
+
+    @Test
+    void testIteratorRemoveAndClear() {
+        ConcurrentCarsSet carsSet = new ConcurrentCarsSet(Arrays.asList(
+                new Car("Model1", 10.0, 100.0, 20000.0),
+                new Car("Model2", 12.0, 120.0, 25000.0),
+                new Car("Model3", 15.0, 150.0, 30000.0)));
+
+        Iterator<Car> iterator = carsSet.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getModel().equals("Model2")) {
+                iterator.remove();
+            }
+        }
+        assertEquals(2, carsSet.size());
+        assertFalse(carsSet.contains(new Car("Model2", 12.0, 120.0, 25000.0)));
+
+        carsSet.clear();
+        assertTrue(carsSet.isEmpty());
+    }
+
+    @Test
+    void testCrossedRetainAllDoesNotDeadlock() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            for (int round = 0; round < 20; round++) {
+                ConcurrentCarsSet first = new ConcurrentCarsSet(2);
+                ConcurrentCarsSet second = new ConcurrentCarsSet(2);
+                for (int i = 0; i < 20000; i++) {
+                    Car car = new Car("Model" + i, 10.0, i, 20000.0);
+                    if (i % 10 != 0) {
+                        first.add(car);
+                    }
+                    if (i % 10 != 5) {
+                        second.add(car);
+                    }
+                }
+                CountDownLatch start = new CountDownLatch(1);
+                // Daemon threads, so that a deadlock fails the test instead of keeping the JVM alive
+                ExecutorService executor = Executors.newFixedThreadPool(2, task -> {
+                    Thread thread = new Thread(task);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                try {
+                    Future<?> forward = executor.submit(() -> {
+                        start.await();
+                        return first.retainAll(second);
+                    });
+                    Future<?> backward = executor.submit(() -> {
+                        start.await();
+                        return second.retainAll(first);
+                    });
+                    start.countDown();
+                    forward.get();
+                    backward.get();
+                } finally {
+                    executor.shutdownNow();
+                }
+                assertEquals(16000, first.size());
+                assertEquals(16000, second.size());
+                assertEquals(new HashSet<>(first), new HashSet<>(second));
+            }
+        });
+    }
+}
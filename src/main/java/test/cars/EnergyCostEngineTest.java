@@ -0,0 +1,92 @@
+package test.cars;
+
+import cars.Car;
+import cars.ElectricCar;
+import cars.SUV;
+import cars.Sedan;
+import customExceptions.CarException;
+import fleet.EnergyCostEngine;
+import fleet.EnergyPrices;
+import fleet.TaxiFleet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnergyCostEngineTest {
+
+    private final Car sedan = new Sedan("Model1", 8.0, 100.0, 20000.0);
+    private final Car suv = new SUV("Model2", 12.0, 120.0, 25000.0);
+    private final Car electric = new ElectricCar("Model3", 20.0, 150.0, 40000.0);
+    private final Car car = new Car("Model4", 5.0, 90.0, 15000.0);
+    private final EnergyPrices prices = new EnergyPrices(1.5, 0.25);
+
+    private EnergyCostEngine engine() {
+        return new EnergyCostEngine(new TaxiFleet(new Car[]{sedan, suv, electric, car}));
+    }
+
+    @Test
+    void testCostPerKmChargesElectricCarsForPower() {
+        EnergyCostEngine engine = engine();
+        assertEquals(0.12, engine.costPerKm(prices, 0), 1e-9);
+        assertEquals(0.18, engine.costPerKm(prices, 1), 1e-9);
+        assertEquals(0.05, engine.costPerKm(prices, 2), 1e-9);
+        assertEquals(0.075, engine.costPerKm(prices, 3), 1e-9);
+        assertEquals(0.425, engine.fleetCostPerKm(prices), 1e-9);
+    }
+
+    @Test
+    void testTripAndFleetCosts() {
+        EnergyCostEngine engine = engine();
+        assertEquals(12.0, engine.tripCost(prices, 0, 100.0), 1e-9);
+        assertEquals(42.5, engine.fleetCost(prices, 100.0), 1e-9);
+
+        double[] distances = {10.0, 0.0, 100.0, 20.0};
+        assertArrayEquals(new double[]{1.2, 0.0, 5.0, 1.5}, engine.tripCosts(prices, distances), 1e-9);
+        assertEquals(7.7, engine.fleetCost(prices, distances), 1e-9);
+    }
+
+    @Test
+    void testRankingByCost() {
+        EnergyCostEngine engine = engine();
+        assertEquals(List.of(electric, car, sedan, suv), engine.sortedByCost(prices));
+        assertEquals(List.of(electric, car), engine.cheapest(prices, 2));
+        assertEquals(List.of(suv, sedan, car), engine.mostExpensive(prices, 3));
+        assertEquals(4, engine.cheapest(prices, 10).size());
+    }
+
+    @Test
+    void testRepricingReusesEngine() {
+        EnergyCostEngine engine = engine();
+        EnergyPrices expensivePower = new EnergyPrices(1.5, 1.0);
+        assertArrayEquals(new double[]{0.12, 0.18, 0.2, 0.075}, engine.costsPerKm(expensivePower), 1e-9);
+        assertEquals(List.of(car, sedan, suv, electric), engine.sortedByCost(expensivePower));
+        assertEquals(List.of(electric), engine.mostExpensive(expensivePower, 1));
+        assertEquals(List.of(electric), engine.cheapest(prices, 1));
+    }
+
+    @Test
+    void testEngineKeepsOrderOfConstruction() {
+        TaxiFleet fleet = new TaxiFleet(new Car[]{sedan, suv, electric, car});
+        EnergyCostEngine engine = new EnergyCostEngine(fleet);
+        fleet.sortByFuelConsumption();
+        assertSame(sedan, engine.getCar(0));
+        assertEquals(0.12, engine.costsPerKm(prices)[0], 1e-9);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(CarException.class, () -> new EnergyCostEngine(null));
+        assertThrows(CarException.class, () -> new EnergyPrices(-1.0, 1.0));
+        assertThrows(CarException.class, () -> new EnergyPrices(1.0, Double.NaN));
+
+        EnergyCostEngine engine = new EnergyCostEngine(new TaxiFleet(new Car[]{sedan}));
+        EnergyPrices unit = new EnergyPrices(1.0, 1.0);
+        assertThrows(CarException.class, () -> engine.costsPerKm(null));
+        assertThrows(CarException.class, () -> engine.tripCost(unit, 0, -5.0));
+        assertThrows(CarException.class, () -> engine.tripCosts(unit, new double[]{1.0, 2.0}));
+        assertThrows(CarException.class, () -> engine.fleetCost(unit, null));
+        assertThrows(CarException.class, () -> engine.cheapest(unit, -1));
+    }
+}
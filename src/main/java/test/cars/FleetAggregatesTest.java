@@ -0,0 +1,111 @@
+package test.cars;
+
+import cars.Car;
+import cars.CarType;
+import cars.ElectricCar;
+import cars.SUV;
+import cars.Sedan;
+import fleet.CarsSet;
+import fleet.FleetAggregates;
+import fleet.FleetListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetAggregatesTest {
+
+    @Test
+    void testAggregatesFollowChanges() {
+        CarsSet carsSet = new CarsSet();
+        carsSet.add(new Sedan("Model1", 10.0, 100.0, 20000.0));
+        FleetAggregates aggregates = FleetAggregates.track(carsSet);
+        assertEquals(1, aggregates.getCount(CarType.SEDAN));
+
+        carsSet.add(new SUV("Model2", 12.0, 120.0, 25000.0));
+        carsSet.addAll(List.of(new ElectricCar("Model3", 50.0, 150.0, 40000.0), new Car("Model4", 8.0, 90.0, 15000.0)));
+        assertEquals(4, aggregates.getCount());
+        assertEquals(100000.0, aggregates.getTotalCost(), 0.001);
+        assertEquals(115.0, aggregates.getMeanSpeed(), 0.001);
+        assertEquals(1, aggregates.getCount(CarType.ELECTRIC));
+
+        carsSet.remove(new SUV("Model2", 12.0, 120.0, 25000.0));
+        carsSet.removeIf(car -> car.getSpeed() > 140.0);
+        assertEquals(2, aggregates.getCount());
+        assertEquals(35000.0, aggregates.getTotalCost(), 0.001);
+        assertEquals(0, aggregates.getCount(CarType.SUV));
+        assertEquals(carsSet.size(), aggregates.getCount());
+
+        carsSet.clear();
+        assertEquals(0, aggregates.getCount());
+        assertEquals(0.0, aggregates.getTotalCost(), 0.0);
+        assertTrue(Double.isNaN(aggregates.getMeanSpeed()));
+    }
+
+    @Test
+    void testCompensatedTotalCost() {
+        CarsSet carsSet = new CarsSet();
+        FleetAggregates aggregates = FleetAggregates.track(carsSet);
+        carsSet.add(new Car("Base", 1.0, 1.0, 1e9));
+        for (int i = 0; i < 100_000; i++) {
+            Car car = new Car("Model" + i, 1.0, 1.0, 0.01 * (i % 7 + 1));
+            carsSet.add(car);
+            if (i % 2 == 0) {
+                carsSet.remove(car);
+            }
+        }
+        double expected = carsSet.stream().mapToDouble(Car::getPrice).sum();
+        assertEquals(expected, aggregates.getTotalCost(), 1e-6);
+    }
+
+    @Test
+    void testBulkEvents() {
+        CarsSet carsSet = new CarsSet();
+        List<String> events = new ArrayList<>();
+        FleetListener listener = new FleetListener() {
+            @Override
+            public void carAdded(Car car) {
+                events.add("add " + car.getModel());
+            }
+
+            @Override
+            public void carRemoved(Car car) {
+                events.add("remove " + car.getModel());
+            }
+
+            @Override
+            public void cleared() {
+                events.add("clear");
+            }
+
+            @Override
+            public void carsAdded(List<Car> cars) {
+                events.add("addAll " + cars.size());
+            }
+
+            @Override
+            public void carsRemoved(List<Car> cars) {
+                events.add("removeAll " + cars.size());
+            }
+        };
+        carsSet.addListener(listener);
+        Car car1 = new Car("Model1", 10.0, 100.0, 20000.0);
+        Car car2 = new Car("Model2", 10.0, 100.0, 20000.0);
+        Car car3 = new Car("Model3", 10.0, 100.0, 20000.0);
+        carsSet.add(car1);
+        carsSet.add(car1);
+        carsSet.addAll(List.of(car1, car2, car3));
+        carsSet.removeAll(List.of(car2, car3));
+        Iterator<Car> iterator = carsSet.iterator();
+        iterator.next();
+        iterator.remove();
+        carsSet.clear();
+        assertTrue(carsSet.removeListener(listener));
+        carsSet.add(car1);
+
+        assertEquals(List.of("add Model1", "addAll 2", "removeAll 2", "remove Model1", "clear"), events);
+    }
+}
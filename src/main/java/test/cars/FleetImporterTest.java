@@ -0,0 +1,89 @@
+package test.cars;
+
+import cars.Car;
+import cars.ElectricCar;
+import cars.SUV;
+import cars.Sedan;
+import fleet.CarsSet;
+import fleet.ColumnarFleet;
+import fleet.FleetImporter;
+import fleet.ImportReport;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetImporterTest {
+
+    private static ReadableByteChannel channel(String text) {
+        return Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testImportCsv() {
+        String csv = "type,model,fuelConsumption,speed,price,kWatt\r\n"
+                + "Sedan,Model1,10.5,100,20000\r\n"
+                + "suv,\"Big \"\"One\"\", XL\",12,120.25,25000\n"
+                + "\n"
+                + "ElectricCar,Model3,,150,40000,50\n"
+                + "Car,Broken,-1,90,15000\n"
+                + "Truck,Model5,1,2,3\n"
+                + "Car,Model6,8,9e1,1.5e4";
+        List<Car> cars = new ArrayList<>();
+        ImportReport report = new FleetImporter(FleetImporter.Format.CSV, 2).importFrom(channel(csv), FleetImporter.into(cars));
+
+        assertEquals(6, report.getRows());
+        assertEquals(4, report.getImported());
+        assertEquals(2, report.getRejected());
+        assertNotNull(report.getLastRejection());
+        assertEquals(csv.getBytes(StandardCharsets.UTF_8).length, report.getBytes());
+        assertEquals(List.of(
+                new Sedan("Model1", 10.5, 100.0, 20000.0),
+                new SUV("Big \"One\", XL", 12.0, 120.25, 25000.0),
+                new ElectricCar("Model3", 50.0, 150.0, 40000.0),
+                new Car("Model6", 8.0, 90.0, 15000.0)
+        ), cars);
+    }
+
+    @Test
+    void testImportJsonLines() {
+        String json = "{\"type\":\"Sedan\",\"model\":\"Model1\",\"fuelConsumption\":10.1,\"speed\":100,\"price\":20000}\n"
+                + "{ \"model\" : \"\\u041c\\u043e\\u0434\\u0435\\u043b\\u044c\\t2\", \"type\" : \"SUV\", \"speed\" : 120,"
+                + " \"price\" : 25000, \"fuelConsumption\" : 12, \"color\" : \"red\" }\n"
+                + "{\"type\":\"Electric\",\"model\":\"Model3\",\"kWatt\":50,\"speed\":150,\"price\":40000}\n"
+                + "{\"type\":\"Car\",\"model\":\"Model4\",\"speed\":90}\n"
+                + "not json\n";
+        ColumnarFleet fleet = new ColumnarFleet();
+        ImportReport report = new FleetImporter(FleetImporter.Format.JSON_LINES).importFrom(channel(json), FleetImporter.into(fleet));
+
+        assertEquals(5, report.getRows());
+        assertEquals(3, report.getImported());
+        assertEquals(2, report.getRejected());
+        assertEquals(3, fleet.size());
+        assertEquals(new Sedan("Model1", 10.1, 100.0, 20000.0), fleet.getCar(0));
+        assertEquals("Модель\t2", fleet.getModel(1));
+        assertEquals(50.0, fleet.getKWatt(2), 0.001);
+    }
+
+    @Test
+    void testImportLargeCsvIntoCarsSet() {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            csv.append("Car,Model").append(i % 1000).append(',').append(i % 50).append('.').append(i % 10)
+                    .append(',').append(i % 200).append(",1000\n");
+        }
+        CarsSet set = new CarsSet();
+        ImportReport report = new FleetImporter(FleetImporter.Format.CSV).importFrom(channel(csv.toString()), FleetImporter.into(set));
+
+        assertEquals(20_000, report.getImported());
+        assertEquals(0, report.getRejected());
+        assertNull(report.getLastRejection());
+        assertTrue(set.contains(new Car("Model999", 49.9, 199.0, 1000.0)));
+    }
+}
@@ -0,0 +1,179 @@
+package test.cars;
+
+import cars.Car;
+import cars.CarAttribute;
+import customExceptions.CarException;
+import fleet.FleetQueryService;
+import fleet.FleetVersion;
+import fleet.VersionedFleet;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetQueryServiceTest {
+
+    private static Car[] cars(int count) {
+        Car[] cars = new Car[count];
+        for (int i = 0; i < count; i++) {
+            cars[i] = new Car("Model" + i, 5.0 + i % 17, 60.0 + i % 150, 1000.0 + i);
+        }
+        return cars;
+    }
+
+    @Test
+    void testQueriesReadCurrentVersion() throws Exception {
+        VersionedFleet fleet = new VersionedFleet(cars(1000));
+        try (FleetQueryService service = new FleetQueryService(fleet)) {
+            assertEquals(fleet.current().findCarBySpeedRange(100.0, 110.0), service.findCarBySpeedRange(100.0, 110.0).get());
+            assertNull(service.findCarBySpeedRange(500.0, 600.0).get());
+            assertEquals(fleet.current().calculateFleetCost(), service.calculateFleetCost().get(), 0.001);
+
+            List<Car> sorted = service.sortedBy(CarAttribute.PRICE).get();
+            assertEquals(1000.0, sorted.get(0).getPrice(), 0.001);
+            assertEquals(fleet.current().get(0), service.submit(version -> version.get(0)).get());
+
+            fleet.replace(0, new Car("Model-1", 5.0, 300.0, 100.0));
+            assertEquals(100.0, service.sortedBy(CarAttribute.PRICE).get().get(0).getPrice(), 0.001);
+            assertEquals("Model-1", service.findCarBySpeedRange(250.0, 350.0).get().getModel());
+
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> service.sortedBy().get());
+            assertInstanceOf(CarException.class, failure.getCause());
+        }
+    }
+
+    @Test
+    void testBackpressureRejectsAfterTimeout() throws Exception {
+        VersionedFleet fleet = new VersionedFleet(cars(10));
+        try (FleetQueryService service = new FleetQueryService(fleet, 1, Duration.ofMillis(20))) {
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Integer> blocking = service.submit(version -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return version.size();
+            });
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                    () -> service.calculateFleetCost().get());
+            assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+
+            release.countDown();
+            assertEquals(10, blocking.get());
+            assertEquals(fleet.current().calculateFleetCost(), service.calculateFleetCost().get(), 0.001);
+        }
+        assertThrows(CarException.class, () -> new FleetQueryService(fleet, 0, Duration.ZERO));
+    }
+
+    @Test
+    void testQueriesAnswerVersionOfSubmission() throws Exception {
+        VersionedFleet fleet = new VersionedFleet(cars(100));
+        FleetVersion base = fleet.current();
+        Car cheap = new Car("Model-1", 5.0, 300.0, 100.0);
+        Car expensive = new Car("Model-2", 5.0, 300.0, 200.0);
+        FleetVersion first = fleet.replace(0, cheap);
+        try (FleetQueryService service = new FleetQueryService(fleet, 1, Duration.ofSeconds(30))) {
+            // The only slot is taken, so the queries below wait for admission with their version already chosen
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Integer> blocking = service.submit(version -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return version.size();
+            });
+            CompletableFuture<CompletableFuture<Double>> firstCost = waitingForAdmission(service::calculateFleetCost);
+            CompletableFuture<CompletableFuture<Car>> firstLookup =
+                    waitingForAdmission(() -> service.findCarBySpeedRange(250.0, 350.0));
+
+            // Another change of the base version: a different fleet with the same version number
+            FleetVersion second = fleet.update(version -> base.withReplaced(0, expensive));
+            assertEquals(first.getVersion(), second.getVersion());
+            CompletableFuture<CompletableFuture<Double>> secondCost = waitingForAdmission(service::calculateFleetCost);
+
+            release.countDown();
+            assertEquals(100, blocking.get());
+            assertEquals(first.calculateFleetCost(), firstCost.get().get(), 0.001);
+            assertSame(cheap, firstLookup.get().get());
+            assertEquals(second.calculateFleetCost(), secondCost.get().get(), 0.001);
+            assertSame(expensive, service.findCarBySpeedRange(250.0, 350.0).get());
+            assertEquals(0, service.getCoalescedQueries());
+        }
+    }
+
+    /**
+     * Submits a query from a new thread and returns once that thread waits for admission.
+     */
+    private static <T> CompletableFuture<T> waitingForAdmission(Supplier<T> query) throws InterruptedException {
+        CompletableFuture<T> submitted = new CompletableFuture<>();
+        Thread thread = new Thread(() -> submitted.complete(query.get()));
+        thread.setDaemon(true);
+        thread.start();
+        while (thread.getState() != Thread.State.TIMED_WAITING && !submitted.isDone()) {
+            Thread.sleep(1);
+        }
+        return submitted;
+    }
+
+    /**
+     * Submits 10k requests from 16 client threads, each submitting without waiting for its previous results, and
+     * checks every answer together with the number of executions saved by coalescing and batching. The latency
+     * of the service under load is measured by {@code benchmarks.FleetQueryServiceBenchmark}.
+     */
+    @Test
+    void testTenThousandRequestsFromSixteenClients() throws Exception {
+        int requests = 10_000;
+        int clients = 16;
+        VersionedFleet fleet = new VersionedFleet(cars(100_000));
+        FleetVersion version = fleet.current();
+        try (FleetQueryService service = new FleetQueryService(fleet, 2048, Duration.ofSeconds(30))) {
+            List<CompletableFuture<?>> results = new ArrayList<>(Collections.nCopies(requests, null));
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService clientPool = Executors.newFixedThreadPool(clients);
+            List<Future<?>> submitters = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                submitters.add(clientPool.submit(() -> {
+                    start.await();
+                    for (int i = client; i < requests; i += clients) {
+                        results.set(i, i % 100 == 0
+                                ? service.calculateFleetCost()
+                                : service.findCarBySpeedRange(60.0 + i % 200, 61.0 + i % 200));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> submitter : submitters) {
+                submitter.get(60, TimeUnit.SECONDS);
+            }
+            clientPool.shutdown();
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(60, TimeUnit.SECONDS);
+
+            double cost = version.calculateFleetCost();
+            for (int i = 0; i < requests; i++) {
+                Object expected = i % 100 == 0
+                        ? (Object) cost
+                        : version.findCarBySpeedRange(60.0 + i % 200, 61.0 + i % 200);
+                assertEquals(expected, results.get(i).get());
+            }
+            assertEquals(requests, service.getExecutedQueries() + service.getCoalescedQueries());
+            assertTrue(service.getBatches() < requests);
+        }
+    }
+}
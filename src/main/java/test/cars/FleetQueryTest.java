@@ -0,0 +1,86 @@
+package test.cars;
+
+import cars.Car;
+import cars.CarAttribute;
+import cars.ElectricCar;
+import customExceptions.CarException;
+import fleet.FleetQuery;
+import fleet.TaxiFleet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetQueryTest {
+
+    private static TaxiFleet sampleFleet() {
+        return new TaxiFleet(new Car[]{
+                new Car("Model1", 7.0, 150.0, 25000.0),
+                new Car("Model2", 9.0, 160.0, 20000.0),
+                new Car("Model3", 6.0, 170.0, 35000.0),
+                new ElectricCar("Model4", 20.0, 130.0, 28000.0),
+                new Car("Model5", 5.0, 100.0, 15000.0)
+        });
+    }
+
+    @Test
+    void testMultiAttributeQuery() {
+        TaxiFleet taxiFleet = sampleFleet();
+        List<Car> found = taxiFleet.query()
+                .where(CarAttribute.SPEED, 120.0, 180.0)
+                .atMost(CarAttribute.PRICE, 30000.0)
+                .atMost(CarAttribute.FUEL_CONSUMPTION, 8.0)
+                .list();
+
+        assertEquals(2, found.size());
+        assertEquals("Model1", found.get(0).getModel());
+        assertEquals("Model4", found.get(1).getModel());
+    }
+
+    @Test
+    void testCountAndFindFirst() {
+        TaxiFleet taxiFleet = sampleFleet();
+        assertEquals(4, taxiFleet.query().atLeast(CarAttribute.SPEED, 120.0).count());
+        assertEquals(1, taxiFleet.query().atLeast(CarAttribute.KWATT, 1.0).count());
+        assertEquals("Model2", taxiFleet.query()
+                .where(CarAttribute.PRICE, 0.0, 22000.0)
+                .atLeast(CarAttribute.SPEED, 120.0)
+                .findFirst().getModel());
+        assertNull(taxiFleet.query().atLeast(CarAttribute.SPEED, 200.0).findFirst());
+    }
+
+    @Test
+    void testConditionsOnSameAttributeAreIntersected() {
+        TaxiFleet taxiFleet = sampleFleet();
+        FleetQuery query = taxiFleet.query()
+                .atLeast(CarAttribute.SPEED, 140.0)
+                .atMost(CarAttribute.SPEED, 160.0);
+        assertEquals(2, query.count());
+    }
+
+    @Test
+    void testQueryWithNaNBoundIsRejected() {
+        assertThrows(CarException.class, () -> sampleFleet().query().atMost(CarAttribute.PRICE, Double.NaN));
+    }
+
+    @Test
+    void testSelectiveConditionUsesIndex() {
+        List<Car> cars = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            cars.add(new Car("Model" + i, 5.0 + i % 10, 100.0 + i % 100, 10000.0 + i));
+        }
+        TaxiFleet taxiFleet = new TaxiFleet(cars.toArray(new Car[0]));
+
+        FleetQuery selective = taxiFleet.query()
+                .atMost(CarAttribute.FUEL_CONSUMPTION, 8.0)
+                .where(CarAttribute.PRICE, 10000.0, 10009.0);
+        assertTrue(selective.explain().startsWith("index range on PRICE"));
+        assertEquals(4, selective.count());
+
+        FleetQuery broad = taxiFleet.query().atLeast(CarAttribute.SPEED, 0.0).atLeast(CarAttribute.PRICE, 0.0);
+        assertTrue(broad.explain().startsWith("full scan"));
+        assertEquals(1000, broad.count());
+    }
+}
@@ -0,0 +1,120 @@
+package test.cars;
+
+import cars.Car;
+import cars.CarType;
+import cars.ElectricCar;
+import cars.SUV;
+import cars.Sedan;
+import customExceptions.CarException;
+import fleet.ColumnarFleet;
+import fleet.FleetSnapshot;
+import fleet.TaxiFleet;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetSnapshotTest {
+
+    @Test
+    void testWriteAndOpenSnapshot() throws IOException {
+        Car[] cars = {
+                new Sedan("Model1", 10.0, 100.0, 20000.0),
+                new SUV("Модель2", 12.0, 120.0, 25000.0),
+                new ElectricCar("Model3", 50.0, 150.0, 40000.0),
+                new Car("Model1", 8.0, 90.0, 15000.0)
+        };
+        Path path = Files.createTempFile("fleet", ".snapshot");
+        try {
+            FleetSnapshot.write(new TaxiFleet(cars), path);
+            FleetSnapshot snapshot = FleetSnapshot.open(path);
+
+            assertEquals(4, snapshot.size());
+            for (int i = 0; i < cars.length; i++) {
+                assertEquals(cars[i], snapshot.getCar(i));
+            }
+            assertEquals(CarType.ELECTRIC, snapshot.getType(2));
+            assertEquals(50.0, snapshot.getKWatt(2), 0.001);
+            assertEquals("Модель2", snapshot.getModel(1));
+            assertEquals(100000.0, snapshot.calculateFleetCost(), 0.001);
+            assertEquals(1, snapshot.indexOfSpeedRange(110.0, 130.0));
+            assertNull(snapshot.findCarBySpeedRange(200.0, 300.0));
+            assertArrayEquals(cars, snapshot.toColumnarFleet().toArray());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testEmptyFleetSnapshot() throws IOException {
+        Path path = Files.createTempFile("fleet", ".snapshot");
+        try {
+            FleetSnapshot.write(new ColumnarFleet(), path);
+            FleetSnapshot snapshot = FleetSnapshot.open(path);
+            assertEquals(0, snapshot.size());
+            assertEquals(0.0, snapshot.calculateFleetCost(), 0.001);
+            assertEquals(-1, snapshot.indexOfSpeedRange(0.0, 100.0));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testOpenInvalidFile() throws IOException {
+        Path path = Files.createTempFile("fleet", ".snapshot");
+        try {
+            Files.write(path, new byte[]{1, 2, 3});
+            assertThrows(CarException.class, () -> FleetSnapshot.open(path));
+            Files.write(path, new byte[32]);
+            assertThrows(CarException.class, () -> FleetSnapshot.open(path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testRewriteKeepsOpenSnapshotReadable() throws IOException {
+        Car[] cars = new Car[1000];
+        for (int i = 0; i < cars.length; i++) {
+            cars[i] = new Car("Model" + i, 10.0, 100.0 + i, 20000.0);
+        }
+        Path path = Files.createTempFile("fleet", ".snapshot");
+        try {
+            FleetSnapshot.write(new TaxiFleet(cars), path);
+            FleetSnapshot snapshot = FleetSnapshot.open(path);
+            FleetSnapshot.write(new TaxiFleet(new Car[]{new Car("Other", 5.0, 50.0, 100.0)}), path);
+
+            assertEquals(cars[999], snapshot.getCar(999));
+            assertEquals(1, FleetSnapshot.open(path).size());
+            try (var files = Files.list(path.getParent())) {
+                assertTrue(files.noneMatch(file -> file.getFileName().toString()
+                        .startsWith(path.getFileName().toString()) && file.toString().endsWith(".tmp")));
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testCorruptRecord() throws IOException {
+        Path path = Files.createTempFile("fleet", ".snapshot");
+        try {
+            FleetSnapshot.write(new TaxiFleet(new Car[]{new Car("Model1", 8.0, 90.0, 15000.0)}), path);
+            byte[] bytes = Files.readAllBytes(path);
+            int record = bytes.length - 40;
+            bytes[record] = 9; // type ordinal
+            bytes[record + 4] = 7; // model id
+            Files.write(path, bytes);
+
+            FleetSnapshot snapshot = FleetSnapshot.open(path);
+            assertThrows(CarException.class, () -> snapshot.getType(0));
+            assertThrows(CarException.class, () -> snapshot.getModel(0));
+            assertThrows(CarException.class, () -> snapshot.getCar(0));
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
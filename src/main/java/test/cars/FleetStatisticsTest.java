@@ -0,0 +1,61 @@
+package test.cars;
+
+import cars.Car;
+import cars.CarAttribute;
+import cars.ElectricCar;
+import fleet.AttributeStatistics;
+import fleet.FleetStatistics;
+import fleet.TaxiFleet;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetStatisticsTest {
+
+    @Test
+    void testStatisticsOfSmallFleet() {
+        TaxiFleet taxiFleet = new TaxiFleet(new Car[]{
+                new Car("Model1", 10.0, 100.0, 20000.0),
+                new Car("Model2", 12.0, 120.0, 25000.0),
+                new ElectricCar("Model3", 40.0, 140.0, 30000.0)
+        });
+        FleetStatistics statistics = taxiFleet.statistics();
+
+        AttributeStatistics price = statistics.get(CarAttribute.PRICE);
+        assertEquals(3, price.getCount());
+        assertEquals(75000.0, price.getSum(), 0.001);
+        assertEquals(20000.0, price.getMin(), 0.001);
+        assertEquals(30000.0, price.getMax(), 0.001);
+        assertEquals(25000.0, price.getMean(), 0.001);
+        assertEquals(50000000.0 / 3, price.getVariance(), 0.001);
+        assertEquals(25000.0, price.getQuantile(0.5), 0.001);
+
+        assertEquals(22.0, statistics.get(CarAttribute.FUEL_CONSUMPTION).getSum(), 0.001);
+        assertEquals(40.0, statistics.get(CarAttribute.KWATT).getMax(), 0.001);
+    }
+
+    @Test
+    void testStatisticsOfLargeFleetAreDeterministic() {
+        int size = 100000;
+        Car[] cars = new Car[size];
+        for (int i = 0; i < size; i++) {
+            cars[i] = new Car("Model" + i % 100, 5.0 + (i % 7) * 0.1, i % 1000, 10000.0 + i * 0.37);
+        }
+        TaxiFleet taxiFleet = new TaxiFleet(cars);
+
+        AttributeStatistics parallel = FleetStatistics.of(taxiFleet).get(CarAttribute.SPEED);
+        AttributeStatistics single = FleetStatistics.of(taxiFleet, new ForkJoinPool(1)).get(CarAttribute.SPEED);
+
+        assertEquals(size, parallel.getCount());
+        assertEquals(499.5, parallel.getMean(), 1e-9);
+        assertEquals(0.0, parallel.getMin());
+        assertEquals(999.0, parallel.getMax());
+        assertEquals(500.0, parallel.getQuantile(0.5), 20.0);
+        assertEquals(900.0, parallel.getQuantile(0.9), 20.0);
+        assertEquals(Double.doubleToLongBits(single.getSum()), Double.doubleToLongBits(parallel.getSum()));
+        assertEquals(Double.doubleToLongBits(single.getVariance()), Double.doubleToLongBits(parallel.getVariance()));
+        assertEquals(single.getQuantile(0.99), parallel.getQuantile(0.99));
+    }
+}
@@ -0,0 +1,60 @@
+package test.cars;
+
+import cars.Car;
+import cars.ModelRegistry;
+import cars.Sedan;
+import customExceptions.CarException;
+import fleet.TaxiFleet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelRegistryTest {
+
+    @Test
+    void testModelsAreInterned() {
+        Car car1 = new Car(new String("RegistryModel"), 10.0, 100.0, 20000.0);
+        Car car2 = new Sedan(new String("RegistryModel"), 12.0, 110.0, 21000.0);
+
+        assertEquals(car1.getModelId(), car2.getModelId());
+        assertSame(car1.getModel(), car2.getModel());
+        assertEquals(car1.getModelId(), ModelRegistry.idOf("RegistryModel"));
+        assertEquals("RegistryModel", ModelRegistry.nameOf(car1.getModelId()));
+        assertNotEquals(car1.getModelId(), new Car("OtherRegistryModel", 10.0, 100.0, 20000.0).getModelId());
+    }
+
+    @Test
+    void testModelCounts() {
+        TaxiFleet fleet = new TaxiFleet(new Car[]{new Car("CountedModel", 1.0, 100.0, 20000.0)});
+        for (int i = 0; i < 4; i++) {
+            fleet.add(new Sedan("CountedModel", i, 100.0, 20000.0));
+        }
+        fleet.add(new Car("OtherCountedModel", 1.0, 100.0, 20000.0));
+        new Car("UncountedModel", 1.0, 100.0, 20000.0);
+
+        Map<String, Long> counts = ModelRegistry.countByModel(fleet.asList());
+        assertEquals(Map.of("CountedModel", 5L, "OtherCountedModel", 1L), counts);
+        fleet.remove(0);
+        assertEquals(4L, ModelRegistry.countByModel(fleet.asList()).get("CountedModel"));
+        assertTrue(ModelRegistry.countByModel(List.of()).isEmpty());
+        assertTrue(ModelRegistry.size() >= 3);
+    }
+
+    @Test
+    void testEqualityUsesModel() {
+        assertEquals(new Car("EqualModel", 10.0, 100.0, 20000.0), new Car("EqualModel", 10.0, 100.0, 20000.0));
+        assertEquals(new Car("EqualModel", 10.0, 100.0, 20000.0).hashCode(),
+                new Car("EqualModel", 10.0, 100.0, 20000.0).hashCode());
+        assertNotEquals(new Car("EqualModel", 10.0, 100.0, 20000.0), new Car("EqualModel2", 10.0, 100.0, 20000.0));
+    }
+
+    @Test
+    void testInvalidModels() {
+        assertThrows(CarException.class, () -> new Car(null, 10.0, 100.0, 20000.0));
+        assertThrows(CarException.class, () -> ModelRegistry.nameOf(-1));
+        assertThrows(CarException.class, () -> ModelRegistry.nameOf(Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,66 @@
+package test.cars;
+
+import cars.Car;
+import cars.CarAttribute;
+import cars.CarType;
+import cars.ElectricCar;
+import cars.SUV;
+import cars.Sedan;
+import customExceptions.CarException;
+import fleet.OffHeapFleet;
+import fleet.TaxiFleet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapFleetTest {
+
+    @Test
+    void testStoreAndRead() {
+        Car[] cars = {
+                new Sedan("Model1", 10.0, 100.0, 20000.0),
+                new SUV("Model2", 12.0, 120.0, 25000.0),
+                new ElectricCar("Model3", 50.0, 150.0, 40000.0),
+                new Car("Model4", 8.0, 90.0, 15000.0)
+        };
+        OffHeapFleet fleet = new OffHeapFleet(new TaxiFleet(cars));
+
+        assertEquals(4, fleet.size());
+        assertEquals(CarType.ELECTRIC, fleet.getType(2));
+        assertEquals("Model2", fleet.getModel(1));
+        assertEquals(50.0, fleet.get(2, CarAttribute.KWATT), 0.001);
+        assertEquals(List.of(cars), fleet.asList());
+        assertEquals(100000.0, fleet.calculateFleetCost(), 0.001);
+        assertEquals(1, fleet.indexOfSpeedRange(110.0, 130.0));
+        assertEquals(2, fleet.countInRange(CarAttribute.PRICE, 20000.0, 30000.0));
+        assertNull(fleet.findCarBySpeedRange(200.0, 300.0));
+        assertThrows(IndexOutOfBoundsException.class, () -> fleet.getCar(4));
+        assertThrows(CarException.class, () -> fleet.add(null));
+    }
+
+    @Test
+    void testSortAcrossChunks() {
+        OffHeapFleet fleet = new OffHeapFleet();
+        int count = 200_000;
+        double expectedCost = 0;
+        for (int i = 0; i < count; i++) {
+            double price = (i * 7919L) % count;
+            fleet.add(new Car("Model" + i % 100, (i * 31L) % 1000 / 10.0, i % 300, price));
+            expectedCost += price;
+        }
+        assertTrue(fleet.offHeapBytes() >= count * 40L);
+        assertEquals(expectedCost, fleet.calculateFleetCost(), 0.001);
+
+        fleet.sortBy(CarAttribute.FUEL_CONSUMPTION, CarAttribute.PRICE);
+        for (int i = 1; i < count; i++) {
+            double previous = fleet.get(i - 1, CarAttribute.FUEL_CONSUMPTION);
+            double current = fleet.get(i, CarAttribute.FUEL_CONSUMPTION);
+            assertTrue(previous < current
+                    || previous == current && fleet.get(i - 1, CarAttribute.PRICE) <= fleet.get(i, CarAttribute.PRICE));
+        }
+        assertEquals(expectedCost, fleet.calculateFleetCost(), 0.001);
+        assertEquals(count, fleet.asList().size());
+    }
+}
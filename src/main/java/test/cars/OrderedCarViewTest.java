@@ -0,0 +1,51 @@
+package test.cars;
+
+import cars.Car;
+import cars.CarAttribute;
+import cars.ElectricCar;
+import fleet.OrderedCarView;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderedCarViewTest {
+
+    @Test
+    void testViewStaysOrderedAcrossUpdates() {
+        Car car1 = new Car("Model1", 12.0, 100.0, 20000.0);
+        Car car2 = new Car("Model2", 6.0, 180.0, 25000.0);
+        Car car3 = new ElectricCar("Model3", 30.0, 140.0, 30000.0);
+        OrderedCarView view = new OrderedCarView(CarAttribute.FUEL_CONSUMPTION, List.of(car1, car2));
+
+        assertEquals(car2, view.first());
+        view.add(car3);
+        assertEquals(List.of(car3, car2), view.first(2));
+        assertEquals(List.of(car1), view.last(1));
+
+        assertTrue(view.remove(car3));
+        assertFalse(view.remove(car3));
+        assertEquals(car2, view.first());
+        assertEquals(2, view.size());
+    }
+
+    @Test
+    void testDuplicateCarsAreKept() {
+        OrderedCarView view = new OrderedCarView(CarAttribute.PRICE);
+        view.add(new Car("Model1", 10.0, 100.0, 20000.0));
+        view.add(new Car("Model1", 10.0, 100.0, 20000.0));
+        view.add(new Car("Model2", 10.0, 100.0, 15000.0));
+
+        List<Car> iterated = new ArrayList<>();
+        view.forEach(iterated::add);
+        assertEquals(3, iterated.size());
+        assertEquals("Model2", iterated.get(0).getModel());
+        assertEquals(2, view.last(5).stream().filter(car -> car.getModel().equals("Model1")).count());
+
+        view.remove(new Car("Model1", 10.0, 100.0, 20000.0));
+        assertEquals(2, view.size());
+        assertEquals("Model1", view.last().getModel());
+    }
+}
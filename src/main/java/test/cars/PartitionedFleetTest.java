@@ -0,0 +1,92 @@
+package test.cars;
+
+import cars.Car;
+import cars.CarAttribute;
+import cars.CarType;
+import cars.ElectricCar;
+import cars.SUV;
+import cars.Sedan;
+import customExceptions.CarException;
+import fleet.PartitionedFleet;
+import fleet.TaxiFleet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedFleetTest {
+
+    private final Car sedan = new Sedan("Model1", 8.0, 100.0, 20000.0);
+    private final Car suv = new SUV("Model2", 12.0, 120.0, 25000.0);
+    private final Car electric1 = new ElectricCar("Model3", 20.0, 150.0, 40000.0);
+    private final Car electric2 = new ElectricCar("Model4", 15.0, 130.0, 35000.0);
+    private final Car car = new Car("Model5", 5.0, 90.0, 15000.0);
+
+    private PartitionedFleet fleet() {
+        return new PartitionedFleet(new TaxiFleet(new Car[]{sedan, electric1, suv, car, electric2}));
+    }
+
+    @Test
+    void testPartitionsByType() {
+        PartitionedFleet fleet = fleet();
+        assertEquals(5, fleet.size());
+        assertEquals(2, fleet.size(CarType.ELECTRIC));
+        assertEquals(List.of(electric1, electric2), fleet.cars(CarType.ELECTRIC));
+        assertEquals(List.of(car, sedan, suv, electric1, electric2), fleet.asList());
+        assertThrows(UnsupportedOperationException.class, () -> fleet.cars(CarType.SUV).add(suv));
+    }
+
+    @Test
+    void testCarsViewReflectsLaterAdds() {
+        PartitionedFleet fleet = new PartitionedFleet();
+        List<Car> sedans = fleet.cars(CarType.SEDAN);
+        assertTrue(sedans.isEmpty());
+        for (int i = 0; i < 20; i++) {
+            fleet.add(new Sedan("Model" + i, 8.0, 100.0, 20000.0));
+        }
+        assertEquals(20, sedans.size());
+        assertEquals("Model19", sedans.get(19).getModel());
+        assertThrows(IndexOutOfBoundsException.class, () -> sedans.get(20));
+    }
+
+    @Test
+    void testAggregatesPerType() {
+        PartitionedFleet fleet = fleet();
+        assertEquals(135000.0, fleet.calculateFleetCost(), 0.001);
+        assertEquals(75000.0, fleet.calculateFleetCost(CarType.ELECTRIC), 0.001);
+        assertEquals(25000.0, fleet.calculateFleetCost(CarType.SUV), 0.001);
+        assertEquals(15.0, fleet.min(CarType.ELECTRIC, CarAttribute.KWATT), 0.001);
+        assertEquals(150.0, fleet.max(CarType.ELECTRIC, CarAttribute.SPEED), 0.001);
+        assertTrue(Double.isNaN(new PartitionedFleet().min(CarType.SEDAN, CarAttribute.PRICE)));
+    }
+
+    @Test
+    void testQueries() {
+        PartitionedFleet fleet = fleet();
+        assertEquals(3, fleet.countInRange(CarAttribute.SPEED, 100.0, 140.0));
+        assertEquals(1, fleet.countInRange(CarType.ELECTRIC, CarAttribute.SPEED, 100.0, 140.0));
+        assertEquals(List.of(electric1), fleet.findCarsInRange(CarType.ELECTRIC, CarAttribute.PRICE, 38000.0, 50000.0));
+        assertSame(sedan, fleet.findCarBySpeedRange(95.0, 200.0));
+        assertSame(electric1, fleet.findCarBySpeedRange(CarType.ELECTRIC, 95.0, 200.0));
+        assertNull(fleet.findCarBySpeedRange(CarType.SUV, 130.0, 200.0));
+        assertSame(electric2, fleet.findCheapestBySpeedRange(CarType.ELECTRIC, 120.0, 160.0));
+        assertSame(electric1, fleet.findCheapestBySpeedRange(CarType.ELECTRIC, 140.0, 160.0));
+        assertNull(fleet.findCheapestBySpeedRange(CarType.ELECTRIC, 200.0, 300.0));
+    }
+
+    @Test
+    void testAddGrowsPartitions() {
+        PartitionedFleet fleet = new PartitionedFleet();
+        for (int i = 0; i < 100; i++) {
+            fleet.add(new SUV("Model" + i, 10.0, 100.0 + i, 1000.0));
+        }
+        fleet.add(car);
+        assertEquals(101, fleet.size());
+        assertSame(car, fleet.asList().get(0));
+        assertEquals(199.0, fleet.asList().get(100).getSpeed(), 0.001);
+        assertThrows(IndexOutOfBoundsException.class, () -> fleet.asList().get(101));
+        assertThrows(CarException.class, () -> fleet.add(null));
+        assertThrows(CarException.class, () -> fleet.size(null));
+    }
+}
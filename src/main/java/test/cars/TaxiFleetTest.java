@@ -1,10 +1,19 @@
 package test.cars;
 
 import cars.Car;
+import cars.CarAttribute;
 import customExceptions.CarException;
+import fleet.FleetAggregates;
 import fleet.TaxiFleet;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class TaxiFleetTest {
@@ -74,4 +83,179 @@ class TaxiFleetTest {
         Car foundCar = taxiFleet.findCarBySpeedRange(130.0, 140.0);
         assertNull(foundCar);
     }
+
+    @Test
+    void testFindCarBySpeedRangeReturnsFirstCarOfFleet() {
+        Car[] cars = {
+                new Car("Model1", 10.0, 150.0, 20000.0),
+                new Car("Model2", 12.0, 120.0, 25000.0),
+                new Car("Model3", 14.0, 130.0, 30000.0)
+        };
+        TaxiFleet taxiFleet = new TaxiFleet(cars);
+        assertEquals("Model2", taxiFleet.findCarBySpeedRange(110.0, 140.0).getModel());
+        assertEquals("Model1", taxiFleet.findCarBySpeedRange(110.0, 150.0).getModel());
+    }
+
+    @Test
+    void testFindCarsBySpeedRange() {
+        Car[] cars = {
+                new Car("Model1", 10.0, 150.0, 20000.0),
+                new Car("Model2", 12.0, 120.0, 25000.0),
+                new Car("Model3", 14.0, 130.0, 30000.0),
+                new Car("Model4", 16.0, 90.0, 35000.0)
+        };
+        TaxiFleet taxiFleet = new TaxiFleet(cars);
+        assertEquals(Arrays.asList(cars[1], cars[2], cars[0]), taxiFleet.findCarsBySpeedRange(100.0, 150.0));
+        assertEquals(List.of(cars[2]), taxiFleet.findCarsBySpeedRange(100.0, 150.0, 1, 1));
+        assertEquals(3, taxiFleet.countCarsBySpeedRange(100.0, 150.0));
+        assertEquals(0, taxiFleet.countCarsBySpeedRange(150.0, 100.0));
+        assertTrue(taxiFleet.findCarsBySpeedRange(160.0, 200.0).isEmpty());
+        assertThrows(CarException.class, () -> taxiFleet.findCarsBySpeedRange(100.0, 150.0, -1, 1));
+    }
+
+    @Test
+    void testFindCarBySpeedRangeAfterSort() {
+        Car[] cars = {
+                new Car("Model1", 12.0, 120.0, 20000.0),
+                new Car("Model2", 10.0, 125.0, 25000.0)
+        };
+        TaxiFleet taxiFleet = new TaxiFleet(cars);
+        assertEquals("Model1", taxiFleet.findCarBySpeedRange(110.0, 130.0).getModel());
+        taxiFleet.sortByFuelConsumption();
+        assertEquals("Model2", taxiFleet.findCarBySpeedRange(110.0, 130.0).getModel());
+    }
+
+    @Test
+    void testSortByMultipleAttributes() {
+        Car[] cars = {
+                new Car("Model1", 10.0, 130.0, 25000.0),
+                new Car("Model2", 8.0, 100.0, 30000.0),
+                new Car("Model3", 10.0, 120.0, 20000.0),
+                new Car("Model4", 10.0, 110.0, 25000.0)
+        };
+        TaxiFleet taxiFleet = new TaxiFleet(cars);
+        taxiFleet.sortBy(CarAttribute.FUEL_CONSUMPTION, CarAttribute.PRICE, CarAttribute.SPEED);
+
+        Car[] sorted = taxiFleet.getCars();
+        assertEquals("Model2", sorted[0].getModel());
+        assertEquals("Model3", sorted[1].getModel());
+        assertEquals("Model4", sorted[2].getModel());
+        assertEquals("Model1", sorted[3].getModel());
+        assertThrows(CarException.class, () -> taxiFleet.sortBy());
+    }
+
+    @Test
+    void testParallelSortByMatchesSequentialSort() {
+        int size = 200000;
+        Car[] cars = new Car[size];
+        for (int i = 0; i < size; i++) {
+            cars[i] = new Car("Model" + i, (i * 7919) % 1000 / 10.0, i % 300, 20000.0);
+        }
+        TaxiFleet sequential = new TaxiFleet(cars.clone());
+        TaxiFleet parallel = new TaxiFleet(cars.clone());
+        sequential.sortBy(CarAttribute.FUEL_CONSUMPTION, CarAttribute.SPEED);
+        parallel.parallelSortBy(CarAttribute.FUEL_CONSUMPTION, CarAttribute.SPEED);
+
+        Car[] expected = sequential.getCars();
+        assertArrayEquals(expected, parallel.getCars());
+        for (int i = 1; i < size; i++) {
+            assertTrue(expected[i - 1].getFuelConsumption() <= expected[i].getFuelConsumption());
+        }
+    }
+
+    @Test
+    void testLowestAndHighestKeepFleetOrder() {
+        Car[] cars = {
+                new Car("Model1", 12.0, 100.0, 20000.0),
+                new Car("Model2", 6.0, 180.0, 25000.0),
+                new Car("Model3", 9.0, 140.0, 30000.0),
+                new Car("Model4", 6.0, 120.0, 35000.0)
+        };
+        TaxiFleet taxiFleet = new TaxiFleet(cars.clone());
+
+        assertEquals(List.of(cars[1], cars[3]), taxiFleet.lowest(CarAttribute.FUEL_CONSUMPTION, 2));
+        assertEquals(List.of(cars[1], cars[2], cars[3]), taxiFleet.highest(CarAttribute.SPEED, 3));
+        assertEquals(4, taxiFleet.lowest(CarAttribute.PRICE, 10).size());
+        assertTrue(taxiFleet.lowest(CarAttribute.PRICE, 0).isEmpty());
+        assertArrayEquals(cars, taxiFleet.getCars());
+        assertThrows(CarException.class, () -> taxiFleet.highest(CarAttribute.PRICE, -1));
+    }
+
+    @Test
+    void testAddRemoveAndReplace() {
+        Car car1 = new Car("Model1", 12.0, 100.0, 20000.0);
+        Car car2 = new Car("Model2", 6.0, 180.0, 25000.0);
+        Car car3 = new Car("Model3", 9.0, 140.0, 30000.0);
+        TaxiFleet taxiFleet = new TaxiFleet(new Car[]{car1});
+        List<Car> view = taxiFleet.asList();
+        for (int i = 0; i < 20; i++) {
+            taxiFleet.add(new Car("Extra" + i, 10.0, 50.0, 1000.0));
+        }
+        taxiFleet.add(car2);
+        assertEquals(22, taxiFleet.size());
+        assertEquals(22, view.size());
+        assertSame(car2, view.get(21));
+        assertEquals(65000.0, taxiFleet.calculateFleetCost(), 0.001);
+        assertSame(car2, taxiFleet.findCarBySpeedRange(150.0, 200.0));
+
+        assertTrue(taxiFleet.remove(new Car("Extra0", 10.0, 50.0, 1000.0)));
+        assertSame(car2, taxiFleet.remove(20));
+        assertNull(taxiFleet.findCarBySpeedRange(150.0, 200.0));
+        assertSame(car1, taxiFleet.replace(0, car3));
+        assertSame(car3, taxiFleet.get(0));
+        assertEquals(1, taxiFleet.countCarsBySpeedRange(130.0, 150.0));
+        assertEquals(20, taxiFleet.getCars().length);
+        assertThrows(UnsupportedOperationException.class, () -> view.add(car1));
+        assertThrows(IndexOutOfBoundsException.class, () -> taxiFleet.get(20));
+        assertThrows(CarException.class, () -> taxiFleet.add(null));
+    }
+
+    @Test
+    void testFleetKeepsAtLeastOneCar() {
+        Car car = new Car("Model1", 12.0, 100.0, 20000.0);
+        TaxiFleet taxiFleet = new TaxiFleet(new Car[]{car, new Car("Model2", 6.0, 180.0, 25000.0)});
+        taxiFleet.remove(1);
+        assertThrows(CarException.class, () -> taxiFleet.remove(0));
+        assertSame(car, taxiFleet.get(0));
+    }
+
+    @Test
+    void testListenersFollowChanges() {
+        TaxiFleet taxiFleet = new TaxiFleet(new Car[]{new Car("Model1", 12.0, 100.0, 20000.0)});
+        FleetAggregates aggregates = new FleetAggregates(taxiFleet.asList());
+        taxiFleet.addListener(aggregates);
+        taxiFleet.add(new Car("Model2", 6.0, 180.0, 25000.0));
+        taxiFleet.replace(0, new Car("Model3", 9.0, 140.0, 30000.0));
+        assertEquals(2, aggregates.getCount());
+        assertEquals(55000.0, aggregates.getTotalCost(), 0.001);
+        taxiFleet.remove(1);
+        assertEquals(30000.0, aggregates.getTotalCost(), 0.001);
+
+        assertTrue(taxiFleet.removeListener(aggregates));
+        taxiFleet.add(new Car("Model4", 6.0, 180.0, 25000.0));
+        assertEquals(1, aggregates.getCount());
+    }
+
+    @Test
+    void testConcurrentReadersShareIndexes() throws Exception {
+        Car[] cars = new Car[10000];
+        for (int i = 0; i < cars.length; i++) {
+            cars[i] = new Car("Model" + i, 5.0 + i % 17, i % 300, 1000.0 + i % 1000);
+        }
+        TaxiFleet taxiFleet = new TaxiFleet(cars);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> counts = new ArrayList<>();
+            for (int t = 0; t < 32; t++) {
+                CarAttribute attribute = CarAttribute.values()[t % CarAttribute.values().length];
+                counts.add(executor.submit(() -> taxiFleet.countCarsBySpeedRange(100.0, 199.0)
+                        + taxiFleet.query().where(attribute, 0.0, 3000.0).count()));
+            }
+            for (Future<Integer> count : counts) {
+                assertEquals(3300 + 10000, count.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
@@ -0,0 +1,119 @@
+package test.cars;
+
+import cars.Car;
+import cars.CarAttribute;
+import customExceptions.CarException;
+import fleet.FleetVersion;
+import fleet.VersionedFleet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedFleetTest {
+
+    private static Car car(int i) {
+        return new Car("Model" + i, 5.0 + i % 17, 100.0 + i % 50, 1000.0 + i);
+    }
+
+    @Test
+    void testOldVersionsStayUnchanged() {
+        VersionedFleet fleet = new VersionedFleet(new Car[]{car(3), car(1), car(2)});
+        FleetVersion initial = fleet.current();
+        fleet.add(car(4));
+        fleet.replace(0, car(5));
+        FleetVersion sorted = fleet.sortByFuelConsumption();
+
+        assertEquals(List.of(car(3), car(1), car(2)), initial.asList());
+        assertEquals(0, initial.getVersion());
+        assertEquals(3, sorted.getVersion());
+        assertEquals(List.of(car(1), car(2), car(4), car(5)), sorted.asList());
+        assertSame(sorted, fleet.current());
+
+        FleetVersion removed = fleet.remove(1);
+        assertEquals(List.of(car(1), car(4), car(5)), removed.asList());
+        assertEquals(4, sorted.size());
+    }
+
+    @Test
+    void testLargeVersionsShareStructure() {
+        List<Car> expected = new ArrayList<>();
+        VersionedFleet fleet = new VersionedFleet();
+        for (int i = 0; i < 40000; i++) {
+            fleet.add(car(i));
+            expected.add(car(i));
+        }
+        FleetVersion before = fleet.current();
+        assertEquals(expected, before.asList());
+
+        FleetVersion after = fleet.replace(1234, car(-1));
+        assertEquals(car(-1), after.get(1234));
+        assertEquals(car(1234), before.get(1234));
+        assertEquals(car(39999), after.get(39999));
+        assertEquals(before.calculateFleetCost() - 2234.0 + 999.0, after.calculateFleetCost(), 0.001);
+
+        FleetVersion rebuilt = new VersionedFleet(before.toArray()).current();
+        assertEquals(expected, rebuilt.asList());
+        assertEquals(car(40000), rebuilt.withAdded(car(40000)).get(40000));
+    }
+
+    @Test
+    void testReadersSeeConsistentVersionsDuringWrites() throws InterruptedException {
+        Car[] cars = new Car[2000];
+        for (int i = 0; i < cars.length; i++) {
+            cars[i] = car(cars.length - i);
+        }
+        VersionedFleet fleet = new VersionedFleet(cars);
+        AtomicBoolean inconsistent = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                FleetVersion version = fleet.current();
+                if (version.getVersion() > 0) {
+                    // Every published version after the first is fully sorted
+                    for (int i = 1; i < version.size(); i++) {
+                        if (version.get(i - 1).getFuelConsumption() > version.get(i).getFuelConsumption()) {
+                            inconsistent.set(true);
+                        }
+                    }
+                }
+            }
+        });
+        reader.start();
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            int offset = w * 100;
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < 25; i++) {
+                    Car added = car(offset + i);
+                    fleet.update(version -> version.withAdded(added).sortedBy(CarAttribute.FUEL_CONSUMPTION));
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        done.set(true);
+        reader.join();
+
+        assertFalse(inconsistent.get());
+        assertEquals(2100, fleet.current().size());
+        assertEquals(200, fleet.current().getVersion());
+    }
+
+    @Test
+    void testInvalidChanges() {
+        VersionedFleet fleet = new VersionedFleet(new Car[]{car(1)});
+        assertThrows(CarException.class, () -> new VersionedFleet((Car[]) null));
+        assertThrows(CarException.class, () -> fleet.add(null));
+        assertThrows(CarException.class, () -> fleet.sortBy());
+        assertThrows(IndexOutOfBoundsException.class, () -> fleet.replace(1, car(2)));
+        assertThrows(IndexOutOfBoundsException.class, () -> fleet.current().get(-1));
+        assertEquals(0, fleet.current().getVersion());
+    }
+}